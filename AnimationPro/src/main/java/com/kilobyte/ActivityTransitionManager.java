@@ -8,8 +8,6 @@ import android.graphics.Canvas;
 import android.graphics.Color;
 import android.view.View;
 import android.view.Window;
-import android.view.animation.PathInterpolator;
-import android.view.animation.Interpolator;
 import androidx.annotation.NonNull;
 import androidx.core.app.ActivityOptionsCompat;
 import android.os.Build;
@@ -21,7 +19,7 @@ public class ActivityTransitionManager {
     private static final float SCALE_DOWN_VALUE = 0.99f;
     private static final float ALPHA_VALUE = 0.85f;
     
-    private static final Interpolator IOS_INTERPOLATOR = new PathInterpolator(0.42f, 0f, 0.58f, 1f);
+    private static final TimeInterpolator IOS_INTERPOLATOR = InterpolatorRegistry.iosCurveTable();
     
     public static class TransitionBuilder {
         private Activity activity;
@@ -31,6 +29,15 @@ public class ActivityTransitionManager {
         private boolean withStatusBar = true;
         private Integer backgroundColor;
         private Runnable completionCallback;
+        private float snapshotScale = 1f;
+        private Bitmap.Config snapshotConfig = Bitmap.Config.ARGB_8888;
+        private Bitmap snapshotBitmap;
+        private View rootView;
+        private ViewGroup container;
+        private View snapshotView;
+        private TransitionTemplates templates;
+        private float launchFraction = 1f;
+        private boolean launched;
         
         public TransitionBuilder withCompletionCallback(Runnable callback) {
             this.completionCallback = callback;
@@ -66,6 +73,28 @@ public class ActivityTransitionManager {
             return this;
         }
         
+        // A snapshot that only shows behind the fading root can be captured smaller and/or as RGB_565
+        public TransitionBuilder setSnapshotScale(float scale) {
+            this.snapshotScale = Math.max(0.1f, Math.min(1f, scale));
+            return this;
+        }
+        
+        public TransitionBuilder setSnapshotConfig(@NonNull Bitmap.Config config) {
+            this.snapshotConfig = config;
+            return this;
+        }
+        
+        // Fraction of the exit animation after which the intent fires: 1 waits for the end (default),
+        // 0 launches as the animation starts and lets the snapshot cover the handoff
+        public TransitionBuilder setLaunchFraction(float fraction) {
+            this.launchFraction = Math.max(0f, Math.min(1f, fraction));
+            return this;
+        }
+        
+        public TransitionBuilder setOverlappedLaunch(boolean overlapped) {
+            return setLaunchFraction(overlapped ? 0f : 1f);
+        }
+        
         public void start() {
             if (intent != null) {
                 startActivityWithTransition();
@@ -74,71 +103,67 @@ public class ActivityTransitionManager {
             }
         }
         
+        // Cancels this builder's transition if it is still running, e.g. when back is pressed mid-transition
+        public boolean cancel() {
+            return templates != null && templates.cancel(this);
+        }
+        
         private void startActivityWithTransition() {
             prepareWindow();
-            final View rootView = getRootView();
-            final ViewGroup container = (ViewGroup) rootView.getParent();
+            rootView = getRootView();
+            container = (ViewGroup) rootView.getParent();
+            templates = TransitionTemplates.forRootView(rootView);
+            templates.cancel(null);
             
-            final View snapshotView = createSnapshot(rootView);
+            snapshotView = createSnapshot(rootView);
             if (container != null && snapshotView != null) {
                 container.addView(snapshotView);
             }
             
-            AnimatorSet animatorSet = new AnimatorSet();
-            
-            ObjectAnimator scaleX = ObjectAnimator.ofFloat(rootView, View.SCALE_X, 1f, SCALE_DOWN_VALUE);
-            ObjectAnimator scaleY = ObjectAnimator.ofFloat(rootView, View.SCALE_Y, 1f, SCALE_DOWN_VALUE);
-            ObjectAnimator alpha = ObjectAnimator.ofFloat(rootView, View.ALPHA, 1f, ALPHA_VALUE);
-            ObjectAnimator translateZ = ObjectAnimator.ofFloat(rootView, View.TRANSLATION_Z, 0f, -50f);
-            ObjectAnimator translateX = ObjectAnimator.ofFloat(rootView, View.TRANSLATION_X, 0f, rootView.getWidth() * 0.3f);
-            
-            animatorSet.playTogether(scaleX, scaleY, alpha, translateZ);
-            animatorSet.setInterpolator(IOS_INTERPOLATOR);
-            animatorSet.setDuration(duration);
-            
-            animatorSet.addListener(new AnimatorListenerAdapter() {
-                @Override
-                public void onAnimationEnd(Animator animation) {
-                    ActivityOptionsCompat options = ActivityOptionsCompat.makeCustomAnimation(
-                        activity, 0, 0);
-                    activity.startActivity(intent, options.toBundle());
-                    resetView(rootView);
-                    if (container != null && snapshotView != null) {
-                        container.removeView(snapshotView);
-                    }
-                }
-            });
-            
-            animatorSet.start();
+            launched = false;
+            templates.startExit(this, duration);
+            if (launchFraction <= 0f) {
+                launchIntent();
+            }
         }
         
         private void finishWithTransition() {
             prepareWindow();
-            final View rootView = getRootView();
-            
-            AnimatorSet animatorSet = new AnimatorSet();
-            
-            ObjectAnimator translateX = ObjectAnimator.ofFloat(rootView, View.TRANSLATION_X, 0f, rootView.getWidth() * 0.3f);
-            ObjectAnimator alpha = ObjectAnimator.ofFloat(rootView, View.ALPHA, 1f, 0f);
-            ObjectAnimator scaleX = ObjectAnimator.ofFloat(rootView, View.SCALE_X, 1f, 0.99f);
-            ObjectAnimator scaleY = ObjectAnimator.ofFloat(rootView, View.SCALE_Y, 1f, 0.99f);
-            
-            animatorSet.playTogether(translateX, alpha, scaleX, scaleY);
-            animatorSet.setInterpolator(IOS_INTERPOLATOR);
-            animatorSet.setDuration(duration);
-            
-            animatorSet.addListener(new AnimatorListenerAdapter() {
-                @Override
-                public void onAnimationEnd(Animator animation) {
-                    ActivityOptionsCompat options = ActivityOptionsCompat.makeCustomAnimation(
-                        activity, 0, 0);
-                    if (completionCallback != null) {
-                        completionCallback.run();
-                    }
+            rootView = getRootView();
+            templates = TransitionTemplates.forRootView(rootView);
+            templates.startFinish(this, duration);
+        }
+        
+        void onExitProgress(float timeFraction) {
+            if (timeFraction >= launchFraction) {
+                launchIntent();
+            }
+        }
+        
+        void onTransitionEnd(boolean canceled) {
+            if (intent != null) {
+                if (!canceled) {
+                    launchIntent();
                 }
-            });
-            
-            animatorSet.start();
+                resetView(rootView);
+                if (container != null && snapshotView != null) {
+                    container.removeView(snapshotView);
+                }
+                snapshotView = null;
+                releaseSnapshot();
+            } else if (!canceled && completionCallback != null) {
+                completionCallback.run();
+            }
+        }
+        
+        private void launchIntent() {
+            if (launched) {
+                return;
+            }
+            launched = true;
+            ActivityOptionsCompat options = ActivityOptionsCompat.makeCustomAnimation(
+                activity, 0, 0);
+            activity.startActivity(intent, options.toBundle());
         }
         
         private void prepareWindow() {
@@ -160,49 +185,46 @@ public class ActivityTransitionManager {
         private View createSnapshot(View view) {
             Bitmap bitmap = createBitmapFromView(view);
             if (bitmap != null) {
-                View snapshot = new View(activity);
-                snapshot.setBackground(new BitmapDrawable(activity.getResources(), bitmap));
-                snapshot.setLayoutParams(new ViewGroup.LayoutParams(
-                    ViewGroup.LayoutParams.MATCH_PARENT,
-                    ViewGroup.LayoutParams.MATCH_PARENT
-                ));
-                return snapshot;
+                return templates.obtainSnapshotView(bitmap);
             }
             return null;
         }
         
         private Bitmap createBitmapFromView(View view) {
-            Bitmap bitmap = Bitmap.createBitmap(
-                view.getWidth(),
-                view.getHeight(),
-                Bitmap.Config.ARGB_8888
-            );
+            int width = Math.round(view.getWidth() * snapshotScale);
+            int height = Math.round(view.getHeight() * snapshotScale);
+            if (width <= 0 || height <= 0) {
+                return null;
+            }
+            
+            SnapshotBitmapPool pool = SnapshotBitmapPool.getInstance();
+            pool.register(activity);
+            Bitmap bitmap = pool.acquire(width, height, snapshotConfig);
             Canvas canvas = new Canvas(bitmap);
+            if (snapshotScale != 1f) {
+                canvas.scale(snapshotScale, snapshotScale);
+            }
             view.draw(canvas);
+            snapshotBitmap = bitmap;
             return bitmap;
         }
+        
+        private void releaseSnapshot() {
+            if (snapshotBitmap != null) {
+                SnapshotBitmapPool.getInstance().release(snapshotBitmap);
+                snapshotBitmap = null;
+            }
+        }
     }
     
     public static void setupEnterAnimation(@NonNull Activity activity) {
-        final View rootView = getRootView(activity);
-        
-        rootView.setAlpha(0f);
-        rootView.setScaleX(1.05f);
-        rootView.setScaleY(1.05f);
-        rootView.setTranslationZ(100f);
-        
-        AnimatorSet animatorSet = new AnimatorSet();
-        
-        ObjectAnimator alpha = ObjectAnimator.ofFloat(rootView, View.ALPHA, 0f, 1f);
-        ObjectAnimator scaleX = ObjectAnimator.ofFloat(rootView, View.SCALE_X, 1.02f, 1f);
-        ObjectAnimator scaleY = ObjectAnimator.ofFloat(rootView, View.SCALE_Y, 1.02f, 1f);
-        ObjectAnimator translateZ = ObjectAnimator.ofFloat(rootView, View.TRANSLATION_Z, 100f, 0f);
-        
-        animatorSet.playTogether(alpha, scaleX, scaleY, translateZ);
-        animatorSet.setInterpolator(IOS_INTERPOLATOR);
-        animatorSet.setStartDelay(60);
-        animatorSet.setDuration(DEFAULT_DURATION);
-        animatorSet.start();
+        TransitionTemplates.forRootView(getRootView(activity)).startEnter();
+    }
+    
+    // Cancels whatever transition is running on the activity's content view; returns false if none was
+    public static boolean cancelTransition(@NonNull Activity activity) {
+        Object templates = getRootView(activity).getTag(R.id.animation_pro_transition_templates);
+        return templates instanceof TransitionTemplates && ((TransitionTemplates) templates).cancel(null);
     }
     
     private static View getRootView(Activity activity) {
@@ -210,14 +232,163 @@ public class ActivityTransitionManager {
     }
     
     private static void resetView(View view) {
-        PropertyValuesHolder alpha = PropertyValuesHolder.ofFloat(View.ALPHA, 1f);
-        PropertyValuesHolder scaleX = PropertyValuesHolder.ofFloat(View.SCALE_X, 1f);
-        PropertyValuesHolder scaleY = PropertyValuesHolder.ofFloat(View.SCALE_Y, 1f);
-        PropertyValuesHolder translationX = PropertyValuesHolder.ofFloat(View.TRANSLATION_X, 0f);
-        PropertyValuesHolder translationZ = PropertyValuesHolder.ofFloat(View.TRANSLATION_Z, 0f);
-        
-        ObjectAnimator animator = ObjectAnimator.ofPropertyValuesHolder(
-            view, alpha, scaleX, scaleY, translationX, translationZ);
-        animator.setDuration(0).start();
+        view.setAlpha(1f);
+        view.setScaleX(1f);
+        view.setScaleY(1f);
+        view.setTranslationX(0f);
+        view.setTranslationZ(0f);
+    }
+    
+    // Animators for one content view, built once and retargeted on every transition instead of reallocated
+    static final class TransitionTemplates extends AnimatorListenerAdapter
+            implements ValueAnimator.AnimatorUpdateListener {
+        private final View rootView;
+        
+        private final ObjectAnimator exitAlpha;
+        final AnimatorSet exitSet = new AnimatorSet();
+        
+        private final ObjectAnimator finishTranslateX;
+        final AnimatorSet finishSet = new AnimatorSet();
+        
+        final AnimatorSet enterSet = new AnimatorSet();
+        
+        private AnimatorSet runningSet;
+        private TransitionBuilder owner;
+        private boolean canceled;
+        
+        private View snapshotView;
+        private BitmapDrawable snapshotDrawable;
+        
+        private TransitionTemplates(View rootView) {
+            this.rootView = rootView;
+            
+            exitAlpha = ObjectAnimator.ofFloat(rootView, View.ALPHA, 1f, ALPHA_VALUE);
+            exitAlpha.addUpdateListener(this);
+            exitSet.playTogether(
+                ObjectAnimator.ofFloat(rootView, View.SCALE_X, 1f, SCALE_DOWN_VALUE),
+                ObjectAnimator.ofFloat(rootView, View.SCALE_Y, 1f, SCALE_DOWN_VALUE),
+                exitAlpha,
+                ObjectAnimator.ofFloat(rootView, View.TRANSLATION_Z, 0f, -50f));
+            exitSet.setInterpolator(IOS_INTERPOLATOR);
+            exitSet.addListener(this);
+            
+            finishTranslateX = ObjectAnimator.ofFloat(rootView, View.TRANSLATION_X, 0f, 0f);
+            finishSet.playTogether(
+                finishTranslateX,
+                ObjectAnimator.ofFloat(rootView, View.ALPHA, 1f, 0f),
+                ObjectAnimator.ofFloat(rootView, View.SCALE_X, 1f, 0.99f),
+                ObjectAnimator.ofFloat(rootView, View.SCALE_Y, 1f, 0.99f));
+            finishSet.setInterpolator(IOS_INTERPOLATOR);
+            finishSet.addListener(this);
+            
+            enterSet.playTogether(
+                ObjectAnimator.ofFloat(rootView, View.ALPHA, 0f, 1f),
+                ObjectAnimator.ofFloat(rootView, View.SCALE_X, 1.02f, 1f),
+                ObjectAnimator.ofFloat(rootView, View.SCALE_Y, 1.02f, 1f),
+                ObjectAnimator.ofFloat(rootView, View.TRANSLATION_Z, 100f, 0f));
+            enterSet.setInterpolator(IOS_INTERPOLATOR);
+            enterSet.setStartDelay(60);
+            enterSet.setDuration(DEFAULT_DURATION);
+            enterSet.addListener(this);
+        }
+        
+        static TransitionTemplates forRootView(View rootView) {
+            Object tag = rootView.getTag(R.id.animation_pro_transition_templates);
+            if (tag instanceof TransitionTemplates) {
+                return (TransitionTemplates) tag;
+            }
+            TransitionTemplates templates = new TransitionTemplates(rootView);
+            rootView.setTag(R.id.animation_pro_transition_templates, templates);
+            return templates;
+        }
+        
+        void startExit(TransitionBuilder builder, long duration) {
+            exitSet.setDuration(duration);
+            run(exitSet, builder, "activityExit");
+        }
+        
+        void startFinish(TransitionBuilder builder, long duration) {
+            finishTranslateX.setFloatValues(0f, rootView.getWidth() * 0.3f);
+            finishSet.setDuration(duration);
+            run(finishSet, builder, "activityFinish");
+        }
+        
+        void startEnter() {
+            cancel(null);
+            rootView.setAlpha(0f);
+            rootView.setScaleX(1.05f);
+            rootView.setScaleY(1.05f);
+            rootView.setTranslationZ(100f);
+            run(enterSet, null, "activityEnter");
+        }
+        
+        // A null builder cancels any running transition, otherwise only one owned by that builder
+        boolean cancel(TransitionBuilder builder) {
+            AnimatorSet set = runningSet;
+            if (set == null || (builder != null && builder != owner)) {
+                return false;
+            }
+            set.cancel();
+            return true;
+        }
+        
+        View obtainSnapshotView(Bitmap bitmap) {
+            if (snapshotView == null) {
+                snapshotView = new View(rootView.getContext());
+                snapshotView.setLayoutParams(new ViewGroup.LayoutParams(
+                    ViewGroup.LayoutParams.MATCH_PARENT,
+                    ViewGroup.LayoutParams.MATCH_PARENT
+                ));
+            }
+            if (snapshotDrawable == null || snapshotDrawable.getBitmap() != bitmap) {
+                snapshotDrawable = new BitmapDrawable(rootView.getResources(), bitmap);
+                snapshotView.setBackground(snapshotDrawable);
+            } else {
+                // Pooled buffer came back with new pixels
+                snapshotDrawable.invalidateSelf();
+            }
+            return snapshotView;
+        }
+        
+        private void run(AnimatorSet set, TransitionBuilder builder, String name) {
+            cancel(null);
+            owner = builder;
+            canceled = false;
+            runningSet = set;
+            AnimationMetrics.track(name, set);
+            set.start();
+        }
+        
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            if (owner != null && runningSet == exitSet) {
+                long animationDuration = animation.getDuration();
+                float timeFraction = animationDuration > 0
+                    ? (float) animation.getCurrentPlayTime() / animationDuration
+                    : 1f;
+                owner.onExitProgress(timeFraction);
+            }
+        }
+        
+        @Override
+        public void onAnimationCancel(Animator animation) {
+            canceled = true;
+        }
+        
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            if (animation != runningSet) {
+                return;
+            }
+            runningSet = null;
+            TransitionBuilder builder = owner;
+            owner = null;
+            if (canceled) {
+                resetView(rootView);
+            }
+            if (builder != null) {
+                builder.onTransitionEnd(canceled);
+            }
+        }
     }
-}
\ No newline at end of file
+}
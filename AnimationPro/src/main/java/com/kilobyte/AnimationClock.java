@@ -0,0 +1,68 @@
+package com.kilobyte;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+/**
+ * Time source and frame scheduler for everything AnimationPro drives itself: the frame engine behind the
+ * staggered entrances, metrics trackers and delayed starts. The system clock is used unless another one is
+ * installed, e.g. a manual clock that a test advances frame by frame.
+ * All methods must be called on the main thread.
+ */
+public abstract class AnimationClock {
+
+    private static AnimationClock installed;
+
+    public static AnimationClock getInstance() {
+        if (installed == null) {
+            installed = new SystemAnimationClock();
+        }
+        return installed;
+    }
+
+    // null restores the system clock; install before any animation starts so none is left on the old clock
+    public static void install(AnimationClock clock) {
+        installed = clock;
+    }
+
+    // Same time base as the frame times passed to frame callbacks
+    public abstract long nanoTime();
+
+    public abstract void postFrameCallback(Choreographer.FrameCallback callback);
+
+    public abstract void removeFrameCallback(Choreographer.FrameCallback callback);
+
+    public abstract void postDelayed(Runnable action, long delayMillis);
+
+    public abstract void removeCallbacks(Runnable action);
+
+    private static final class SystemAnimationClock extends AnimationClock {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void postFrameCallback(Choreographer.FrameCallback callback) {
+            Choreographer.getInstance().postFrameCallback(callback);
+        }
+
+        @Override
+        public void removeFrameCallback(Choreographer.FrameCallback callback) {
+            Choreographer.getInstance().removeFrameCallback(callback);
+        }
+
+        @Override
+        public void postDelayed(Runnable action, long delayMillis) {
+            handler.postDelayed(action, delayMillis);
+        }
+
+        @Override
+        public void removeCallbacks(Runnable action) {
+            handler.removeCallbacks(action);
+        }
+    }
+}
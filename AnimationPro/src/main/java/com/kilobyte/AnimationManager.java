@@ -6,84 +6,403 @@ import android.animation.AnimatorSet;
 import android.animation.ObjectAnimator;
 import android.animation.PropertyValuesHolder;
 import android.animation.TimeInterpolator;
-import android.os.Handler;
-import android.os.Looper;
+import android.graphics.Rect;
+import android.util.DisplayMetrics;
+import android.util.Property;
 import android.view.GestureDetector;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.ViewTreeObserver;
-import android.view.animation.AccelerateInterpolator;
-import android.view.animation.BounceInterpolator;
-import android.view.animation.LinearInterpolator;
-import android.view.animation.OvershootInterpolator;
 import android.widget.LinearLayout;
 import androidx.dynamicanimation.animation.DynamicAnimation;
 import androidx.dynamicanimation.animation.SpringAnimation;
 import androidx.dynamicanimation.animation.SpringForce;
+import androidx.recyclerview.widget.RecyclerView;
+import java.util.IdentityHashMap;
 import java.util.List;
 
 public class AnimationManager {
 
-    private static final int ANIMATION_STAGGER_DELAY = 20;
-    private static final int ANIMATION_BASE_DURATION = 250;
+    static final int ANIMATION_STAGGER_DELAY = 20;
+    static final int ANIMATION_BASE_DURATION = 250;
+    // Scratch rect for viewport checks; only touched on the main thread
+    private static final Rect VISIBLE_RECT = new Rect();
 
     public static class SmoothAnimationCreator {
         
         public static void startContainerContentAnimation(ViewGroup containerView) {
-            containerView.postDelayed(() -> animateChildViewsWithDelay(containerView), 100);
+            startContainerContentAnimation(containerView, false);
         }
 
-        private static void animateChildViewsWithDelay(ViewGroup containerView) {
+        // Only children inside the visible window take part in the stagger. The rest jump to their final state,
+        // or with animateOnScroll wait hidden and run the same entrance once they are scrolled into view.
+        public static void startContainerContentAnimation(ViewGroup containerView, boolean animateOnScroll) {
+            AnimationClock.getInstance().postDelayed(() -> runWhenLaidOut(containerView,
+                () -> animateChildViewsWithDelay(containerView, animateOnScroll)), 100);
+        }
+
+        // Visibility means nothing before the container is attached and laid out: every child would read as off
+        // screen and jump to its end state. Until then the action waits for the first pre-draw, which follows layout.
+        private static void runWhenLaidOut(ViewGroup containerView, Runnable action) {
+            if (containerView.isAttachedToWindow() && containerView.isLaidOut() && !containerView.isLayoutRequested()) {
+                action.run();
+                return;
+            }
+            containerView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+                @Override
+                public boolean onPreDraw() {
+                    containerView.getViewTreeObserver().removeOnPreDrawListener(this);
+                    action.run();
+                    return true;
+                }
+            });
+        }
+
+        private static void animateChildViewsWithDelay(ViewGroup containerView, boolean animateOnScroll) {
+            FrameAnimationEngine engine = FrameAnimationEngine.getInstance();
+            TimeInterpolator interpolator = InterpolatorRegistry.springTable();
             int numberOfChildren = containerView.getChildCount();
+
+            // One viewport check per child: the visible ones are collected and staggered afterwards,
+            // once their count is known for the metrics
+            View[] visibleChildren = new View[numberOfChildren];
+            int visibleCount = 0;
+            LazyEntrance lazyEntrance = null;
             for (int i = 0; i < numberOfChildren; i++) {
                 View childView = containerView.getChildAt(i);
+                if (isExiting(childView)) {
+                    // Left to its list exit; replacing its animation would run the removal right away
+                    continue;
+                }
+                if (isInViewport(childView)) {
+                    visibleChildren[visibleCount++] = childView;
+                } else if (animateOnScroll && childView.getVisibility() == View.VISIBLE) {
+                    if (lazyEntrance == null) {
+                        lazyEntrance = new LazyEntrance(containerView, numberOfChildren - i);
+                    }
+                    lazyEntrance.add(childView);
+                } else {
+                    engine.cancel(childView);
+                    childView.setTranslationY(0f);
+                    childView.setAlpha(1f);
+                }
+            }
+
+            Runnable metricsEnd = beginStaggerMetrics("containerContent", visibleCount, 0);
+            for (int slot = 0; slot < visibleCount; slot++) {
+                engine.animate(visibleChildren[slot], slot * ANIMATION_STAGGER_DELAY, ANIMATION_BASE_DURATION,
+                    100f, 0f, 0f, 1f, interpolator, slot == visibleCount - 1 ? metricsEnd : null);
+            }
+            if (lazyEntrance != null) {
+                lazyEntrance.register();
+            }
+        }
+
+        private static boolean isInViewport(View view) {
+            // Clipped by every scrolling ancestor, so a child below the fold of a ScrollView reports false
+            return view.isShown() && view.getGlobalVisibleRect(VISIBLE_RECT);
+        }
+
+        // Children left out of the first stagger; each is animated in the first time it intersects the window
+        private static final class LazyEntrance
+                implements ViewTreeObserver.OnScrollChangedListener, View.OnAttachStateChangeListener {
+            private final ViewGroup containerView;
+            private final View[] pending;
+            private int pendingCount;
+
+            LazyEntrance(ViewGroup containerView, int capacity) {
+                this.containerView = containerView;
+                this.pending = new View[capacity];
+            }
+
+            void add(View childView) {
+                FrameAnimationEngine.getInstance().cancel(childView);
                 childView.setTranslationY(100f);
                 childView.setAlpha(0f);
+                pending[pendingCount++] = childView;
+            }
 
-                childView.animate()
-                    .translationY(0f)
-                    .alpha(1f)
-                    .setDuration(ANIMATION_BASE_DURATION)
-                    .setStartDelay(i * ANIMATION_STAGGER_DELAY)
-                    .setInterpolator(new CustomSpringInterpolator())
-                    .start();
+            void register() {
+                containerView.getViewTreeObserver().addOnScrollChangedListener(this);
+                containerView.addOnAttachStateChangeListener(this);
+            }
+
+            private void unregister() {
+                ViewTreeObserver observer = containerView.getViewTreeObserver();
+                if (observer.isAlive()) {
+                    observer.removeOnScrollChangedListener(this);
+                }
+                containerView.removeOnAttachStateChangeListener(this);
+            }
+
+            @Override
+            public void onScrollChanged() {
+                FrameAnimationEngine engine = FrameAnimationEngine.getInstance();
+                TimeInterpolator interpolator = InterpolatorRegistry.springTable();
+                int write = 0;
+                int slot = 0;
+                for (int read = 0; read < pendingCount; read++) {
+                    View childView = pending[read];
+                    if (childView.getParent() != containerView) {
+                        // Removed meanwhile; nothing left to reveal
+                        continue;
+                    }
+                    if (isInViewport(childView)) {
+                        // Children revealed by the same scroll step still stagger among themselves
+                        engine.animate(childView, slot++ * ANIMATION_STAGGER_DELAY, ANIMATION_BASE_DURATION,
+                            100f, 0f, 0f, 1f, interpolator, null);
+                        continue;
+                    }
+                    pending[write++] = childView;
+                }
+                for (int i = write; i < pendingCount; i++) {
+                    pending[i] = null;
+                }
+                pendingCount = write;
+                if (pendingCount == 0) {
+                    unregister();
+                }
+            }
+
+            @Override
+            public void onViewAttachedToWindow(View v) {
+            }
+
+            @Override
+            public void onViewDetachedFromWindow(View v) {
+                // Leave whatever is still pending fully shown so the container is usable if it is attached again
+                for (int i = 0; i < pendingCount; i++) {
+                    pending[i].setTranslationY(0f);
+                    pending[i].setAlpha(1f);
+                    pending[i] = null;
+                }
+                pendingCount = 0;
+                unregister();
             }
         }
 
         public static void animateListViewItems(LinearLayout containerView, List<View> viewItems) {
+            FrameAnimationEngine engine = FrameAnimationEngine.getInstance();
+            TimeInterpolator interpolator = InterpolatorRegistry.springTable();
+            int itemCount = viewItems.size();
+            Runnable metricsEnd = beginStaggerMetrics("listItems", itemCount, 3);
             containerView.removeAllViews();
-            for (int i = 0; i < viewItems.size(); i++) {
+            for (int i = 0; i < itemCount; i++) {
                 View itemView = viewItems.get(i);
+                // A view still leaving from updateListViewItems is wanted again; its exit must not remove it
+                cancelExit(itemView);
                 containerView.addView(itemView);
-                itemView.setTranslationY(100f);
-                itemView.setAlpha(0f);
+                engine.animate(itemView, (i + 3) * ANIMATION_STAGGER_DELAY, ANIMATION_BASE_DURATION,
+                    100f, 0f, 0f, 1f, interpolator, i == itemCount - 1 ? metricsEnd : null);
+            }
+        }
+
+        // Incremental counterpart of animateListViewItems: diffs viewItems against the current children by identity.
+        // New views enter with the stagger, missing ones fade out and are removed; every child that stays attached
+        // slides from where it was to wherever the insert, move or removal put it, and is otherwise not touched.
+        public static void updateListViewItems(LinearLayout containerView, List<View> viewItems) {
+            FrameAnimationEngine engine = FrameAnimationEngine.getInstance();
+            int itemCount = viewItems.size();
+            IdentityHashMap<View, Boolean> retained = new IdentityHashMap<>(itemCount * 2);
+            for (int i = 0; i < itemCount; i++) {
+                retained.put(viewItems.get(i), Boolean.TRUE);
+            }
 
-                itemView.animate()
-                    .translationY(0f)
-                    .alpha(1f)
-                    .setDuration(ANIMATION_BASE_DURATION)
-                    .setStartDelay((i + 3) * ANIMATION_STAGGER_DELAY)
-                    .setInterpolator(new CustomSpringInterpolator())
-                    .start();
+            for (int i = containerView.getChildCount() - 1; i >= 0; i--) {
+                View childView = containerView.getChildAt(i);
+                if (!retained.containsKey(childView) && !isExiting(childView)) {
+                    startExit(engine, containerView, childView);
+                }
             }
+
+            View[] attached = new View[containerView.getChildCount()];
+            int[] attachedFrom = new int[attached.length];
+            int attachedCount = recordPositions(containerView, attached, attachedFrom);
+
+            TimeInterpolator interpolator = InterpolatorRegistry.springTable();
+            boolean changed = false;
+            int enterSlot = 0;
+            int childIndex = 0;
+            for (int i = 0; i < itemCount; i++) {
+                View itemView = viewItems.get(i);
+                // Exiting children keep their slot until they are removed, so they are stepped over
+                while (childIndex < containerView.getChildCount() && isExiting(containerView.getChildAt(childIndex))) {
+                    childIndex++;
+                }
+                if (childIndex < containerView.getChildCount() && containerView.getChildAt(childIndex) == itemView) {
+                    childIndex++;
+                    continue;
+                }
+
+                if (itemView.getParent() == containerView) {
+                    if (isExiting(itemView)) {
+                        // Back before its exit finished: reverse from wherever the fade got to
+                        cancelExit(itemView);
+                        childIndex = moveChild(containerView, itemView, childIndex);
+                        engine.animate(itemView, 0, ANIMATION_BASE_DURATION,
+                            itemView.getTranslationY(), 0f, itemView.getAlpha(), 1f, interpolator, null);
+                    } else {
+                        childIndex = moveChild(containerView, itemView, childIndex);
+                    }
+                } else {
+                    if (itemView.getParent() instanceof ViewGroup) {
+                        ((ViewGroup) itemView.getParent()).removeView(itemView);
+                    }
+                    containerView.addView(itemView, childIndex);
+                    engine.animate(itemView, enterSlot++ * ANIMATION_STAGGER_DELAY, ANIMATION_BASE_DURATION,
+                        100f, 0f, 0f, 1f, interpolator, null);
+                }
+                changed = true;
+                childIndex++;
+            }
+
+            if (changed) {
+                animateMoves(containerView, attached, attachedFrom, attachedCount, interpolator);
+            }
+        }
+
+        private static boolean isExiting(View childView) {
+            return childView.getTag(R.id.animation_pro_list_exiting) != null;
+        }
+
+        // The engine also runs an end action when its slot is replaced, so the view is only removed while the tag
+        // still holds this exit's token: a view brought back, or sent on a later exit, is left alone
+        private static void startExit(FrameAnimationEngine engine, LinearLayout containerView, View childView) {
+            Object token = new Object();
+            childView.setTag(R.id.animation_pro_list_exiting, token);
+            engine.animate(childView, 0, ANIMATION_BASE_DURATION,
+                childView.getTranslationY(), 100f, childView.getAlpha(), 0f,
+                InterpolatorRegistry.accelerate(), () -> {
+                    if (childView.getTag(R.id.animation_pro_list_exiting) != token) {
+                        return;
+                    }
+                    childView.setTag(R.id.animation_pro_list_exiting, null);
+                    if (childView.getParent() == containerView) {
+                        // The slot closes now, so the children after it slide up into it
+                        View[] attached = new View[containerView.getChildCount()];
+                        int[] attachedFrom = new int[attached.length];
+                        int attachedCount = recordPositions(containerView, attached, attachedFrom);
+                        containerView.removeView(childView);
+                        animateMoves(containerView, attached, attachedFrom, attachedCount,
+                            InterpolatorRegistry.springTable());
+                    }
+                    childView.setTranslationY(0f);
+                    childView.setAlpha(1f);
+                });
+        }
+
+        private static void cancelExit(View childView) {
+            childView.setTag(R.id.animation_pro_list_exiting, null);
         }
 
+        // Places childView in front of the child currently at index; returns where it ended up
+        private static int moveChild(LinearLayout containerView, View childView, int index) {
+            int from = containerView.indexOfChild(childView);
+            int to = from < index ? index - 1 : index;
+            if (from != to) {
+                containerView.removeViewAt(from);
+                containerView.addView(childView, to);
+            }
+            return to;
+        }
+
+        // Where each child that is not leaving is drawn now along the container's axis: its top, or its left in a
+        // horizontal container, plus any translation a running animation gave it
+        private static int recordPositions(LinearLayout containerView, View[] children, int[] positions) {
+            boolean horizontal = containerView.getOrientation() == LinearLayout.HORIZONTAL;
+            int count = 0;
+            for (int i = 0; i < containerView.getChildCount(); i++) {
+                View childView = containerView.getChildAt(i);
+                if (isExiting(childView)) {
+                    continue;
+                }
+                children[count] = childView;
+                positions[count++] = horizontal
+                    ? childView.getLeft() + (int) childView.getTranslationX()
+                    : childView.getTop() + (int) childView.getTranslationY();
+            }
+            return count;
+        }
+
+        // Slides every recorded child whose place changed from its old position once the new layout is known
+        private static void animateMoves(LinearLayout containerView, View[] children, int[] from, int count,
+                                         TimeInterpolator interpolator) {
+            containerView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+                @Override
+                public boolean onPreDraw() {
+                    containerView.getViewTreeObserver().removeOnPreDrawListener(this);
+                    boolean horizontal = containerView.getOrientation() == LinearLayout.HORIZONTAL;
+                    FrameAnimationEngine engine = FrameAnimationEngine.getInstance();
+                    for (int i = 0; i < count; i++) {
+                        View childView = children[i];
+                        // Gone since, or started leaving after the positions were taken
+                        if (childView.getParent() != containerView || isExiting(childView)) {
+                            continue;
+                        }
+                        float delta = from[i] - (horizontal ? childView.getLeft() : childView.getTop());
+                        if (delta == 0f) {
+                            continue;
+                        }
+                        if (horizontal) {
+                            slideHorizontally(childView, delta, interpolator);
+                        } else {
+                            engine.animate(childView, 0, ANIMATION_BASE_DURATION,
+                                delta, 0f, childView.getAlpha(), 1f, interpolator, null);
+                        }
+                    }
+                    return true;
+                }
+            });
+        }
+
+        // The frame engine only drives translationY, so a horizontal slide is an animator of its own
+        private static void slideHorizontally(View childView, float delta, TimeInterpolator interpolator) {
+            ObjectAnimator animator = ObjectAnimator.ofFloat(childView, View.TRANSLATION_X, delta, 0f);
+            animator.setDuration(ANIMATION_BASE_DURATION);
+            animator.setInterpolator(interpolator);
+            // A second move of the same child takes over from the first
+            animator.setAutoCancel(true);
+            LayerScope.of(childView).bind(animator, AnimationPerformanceOptimizer.PROPERTY_TRANSFORM);
+            animator.start();
+        }
+
+        // Same entrance for RecyclerView rows, applied as rows are attached instead of rebuilding the list
+        public static RecyclerViewEntranceAnimator animateRecyclerViewItems(RecyclerView recyclerView) {
+            return RecyclerViewEntranceAnimator.attach(recyclerView);
+        }
+
+        // The last child of a stagger finishes last, so it carries the end of the group measurement
+        private static Runnable beginStaggerMetrics(String name, int childCount, int delaySlots) {
+            Runnable metricsEnd = AnimationMetrics.begin(name,
+                (childCount - 1 + delaySlots) * ANIMATION_STAGGER_DELAY + ANIMATION_BASE_DURATION);
+            if (metricsEnd != null && childCount == 0) {
+                metricsEnd.run();
+                return null;
+            }
+            return metricsEnd;
+        }
+
+        // An ObjectAnimator rather than view.animate(): the layer scope gets its own listener instead of taking the
+        // view's single ViewPropertyAnimator listener slot away from the app
         public static void startFadeInAnimation(View targetView) {
             targetView.setAlpha(0f);
-            targetView.animate()
-                .alpha(1f)
-                .setDuration(800)
-                .setInterpolator(new LinearInterpolator())
-                .start();
+            startFadeAnimation("fadeIn", targetView, 1f);
         }
 
         public static void startFadeOutAnimation(View targetView) {
-            targetView.animate()
-                .alpha(0f)
-                .setDuration(800)
-                .setInterpolator(new LinearInterpolator())
-                .start();
+            startFadeAnimation("fadeOut", targetView, 0f);
+        }
+
+        private static void startFadeAnimation(String name, View targetView, float endAlpha) {
+            ObjectAnimator animator = ObjectAnimator.ofFloat(targetView, View.ALPHA, endAlpha);
+            animator.setDuration(800);
+            animator.setInterpolator(InterpolatorRegistry.linear());
+            // A fade in cancels a running fade out on the same view and vice versa, as view.animate() did
+            animator.setAutoCancel(true);
+            LayerScope.of(targetView).bind(animator, AnimationPerformanceOptimizer.PROPERTY_ALPHA);
+            AnimationMetrics.track(name, animator);
+            animator.start();
         }
 
         public static void startGradualScaleAnimation(View targetView) {
@@ -93,15 +412,20 @@ public class AnimationManager {
             AnimatorSet scaleAnimationSet = new AnimatorSet();
             scaleAnimationSet.playTogether(scaleXAnimator, scaleYAnimator);
             scaleAnimationSet.setDuration(750);
-            scaleAnimationSet.setInterpolator(new OvershootInterpolator());
+            scaleAnimationSet.setInterpolator(InterpolatorRegistry.overshoot());
+            LayerScope.of(targetView).bind(scaleAnimationSet, AnimationPerformanceOptimizer.PROPERTY_TRANSFORM);
+            AnimationMetrics.track("gradualScale", scaleAnimationSet);
             scaleAnimationSet.start();
         }
 
         public static void startGentleRotationAnimation(View targetView) {
             ObjectAnimator rotationAnimator = ObjectAnimator.ofFloat(targetView, "rotation", 0f, 3f, -3f, 0f);
             rotationAnimator.setDuration(2000);
-            rotationAnimator.setInterpolator(new LinearInterpolator());
+            rotationAnimator.setInterpolator(InterpolatorRegistry.linear());
             rotationAnimator.setRepeatCount(ObjectAnimator.INFINITE);
+            // Infinite, so the layer is held until the caller cancels the rotation
+            LayerScope.of(targetView).bind(rotationAnimator, AnimationPerformanceOptimizer.PROPERTY_TRANSFORM);
+            AnimationMetrics.track("gentleRotation", rotationAnimator);
             rotationAnimator.start();
         }
     }
@@ -116,6 +440,8 @@ public class AnimationManager {
             SpringAnimation springAnimation = new SpringAnimation(targetView, DynamicAnimation.TRANSLATION_X)
                 .setSpring(springForce);
 
+            LayerScope.of(targetView).bind(springAnimation, AnimationPerformanceOptimizer.PROPERTY_TRANSFORM);
+            AnimationMetrics.track("spring", springAnimation);
             springAnimation.start();
         }
 
@@ -126,7 +452,9 @@ public class AnimationManager {
             AnimatorSet bounceAnimationSet = new AnimatorSet();
             bounceAnimationSet.playTogether(scaleXAnimator, scaleYAnimator);
             bounceAnimationSet.setDuration(600);
-            bounceAnimationSet.setInterpolator(new BounceInterpolator());
+            bounceAnimationSet.setInterpolator(InterpolatorRegistry.bounce());
+            LayerScope.of(targetView).bind(bounceAnimationSet, AnimationPerformanceOptimizer.PROPERTY_TRANSFORM);
+            AnimationMetrics.track("bounce", bounceAnimationSet);
             bounceAnimationSet.start();
         }
 
@@ -146,8 +474,8 @@ public class AnimationManager {
 
             scaleDownAnimator.setDuration(100);
             scaleUpAnimator.setDuration(200);
-            scaleDownAnimator.setInterpolator(new AccelerateInterpolator());
-            scaleUpAnimator.setInterpolator(new OvershootInterpolator(2.0f));
+            scaleDownAnimator.setInterpolator(InterpolatorRegistry.accelerate());
+            scaleUpAnimator.setInterpolator(InterpolatorRegistry.overshootStrong());
 
             AnimatorSet tapAnimationSet = new AnimatorSet();
             tapAnimationSet.playSequentially(scaleDownAnimator, scaleUpAnimator);
@@ -165,16 +493,108 @@ public class AnimationManager {
                 }
             });
 
+            LayerScope.of(targetView).bind(tapAnimationSet, AnimationPerformanceOptimizer.PROPERTY_TRANSFORM);
+            AnimationMetrics.track("tapResponse", tapAnimationSet, 300);
             tapAnimationSet.start();
         }
     }
 
     public static class AnimationPerformanceOptimizer {
-        
-        public static void applyAnimationOptimizations(ViewGroup containerView) {
-            containerView.setHasTransientState(true);
-            enableHardwareAcceleration(containerView);
 
+        // What an animation changes on a view; decides whether a hardware layer pays for itself
+        public static final int PROPERTY_TRANSFORM = 1;
+        public static final int PROPERTY_ALPHA = 1 << 1;
+        public static final int PROPERTY_CONTENT = 1 << 2;
+
+        public static final int LAYER_PROMOTED = 0;
+        public static final int LAYER_SKIPPED_CONTENT_CHANGES = 1;
+        public static final int LAYER_SKIPPED_TRANSFORM_ONLY = 2;
+        public static final int LAYER_SKIPPED_NO_OVERLAP = 3;
+        public static final int LAYER_SKIPPED_NOT_LAID_OUT = 4;
+        public static final int LAYER_SKIPPED_OVERSIZED = 5;
+        public static final int LAYER_SKIPPED_OVER_BUDGET = 6;
+        public static final int LAYER_SKIPPED_EXISTING_LAYER = 7;
+
+        public interface LayerDecisionListener {
+            void onLayerDecision(View view, int decision, long layerBytes, long usedBytes, long budgetBytes);
+        }
+
+        private static final int BYTES_PER_PIXEL = 4;
+        // Layers are single textures; anything wider or taller than the GPU limit cannot be cached at all
+        private static final int DEFAULT_MAX_LAYER_DIMENSION = 4096;
+        // Default budget: this many full-screen layers alive at once
+        private static final int DEFAULT_BUDGET_SCREENS = 3;
+
+        private static LayerDecisionListener layerDecisionListener;
+        private static long layerBudgetBytes;
+        private static long layerBytesInUse;
+        private static int maxLayerDimension = DEFAULT_MAX_LAYER_DIMENSION;
+
+        public static void setLayerDecisionListener(LayerDecisionListener listener) {
+            layerDecisionListener = listener;
+        }
+
+        // 0 or less restores the default, sized from the display the first time a layer is requested
+        public static void setLayerMemoryBudget(long budgetBytes) {
+            layerBudgetBytes = Math.max(0, budgetBytes);
+        }
+
+        public static void setMaxLayerDimension(int maxDimension) {
+            maxLayerDimension = maxDimension > 0 ? maxDimension : DEFAULT_MAX_LAYER_DIMENSION;
+        }
+
+        public static long getLayerMemoryInUse() {
+            return layerBytesInUse;
+        }
+
+        // Returns the bytes charged to the budget when the view should be promoted, 0 when it should not
+        static long requestLayer(View view, int properties) {
+            if (layerBudgetBytes == 0) {
+                DisplayMetrics metrics = view.getResources().getDisplayMetrics();
+                layerBudgetBytes = (long) metrics.widthPixels * metrics.heightPixels
+                    * BYTES_PER_PIXEL * DEFAULT_BUDGET_SCREENS;
+            }
+            int width = view.getWidth();
+            int height = view.getHeight();
+            long bytes = (long) width * height * BYTES_PER_PIXEL;
+
+            int decision;
+            if (view.getLayerType() != View.LAYER_TYPE_NONE) {
+                decision = LAYER_SKIPPED_EXISTING_LAYER;
+            } else if ((properties & PROPERTY_CONTENT) != 0) {
+                // The layer would be re-rendered every frame on top of the normal draw
+                decision = LAYER_SKIPPED_CONTENT_CHANGES;
+            } else if ((properties & PROPERTY_ALPHA) == 0) {
+                // Transforms are render node properties and never redraw the view; a layer buys nothing
+                decision = LAYER_SKIPPED_TRANSFORM_ONLY;
+            } else if (!view.hasOverlappingRendering()) {
+                // Alpha is applied while drawing, without an offscreen buffer to replace
+                decision = LAYER_SKIPPED_NO_OVERLAP;
+            } else if (bytes == 0) {
+                decision = LAYER_SKIPPED_NOT_LAID_OUT;
+            } else if (width > maxLayerDimension || height > maxLayerDimension) {
+                decision = LAYER_SKIPPED_OVERSIZED;
+            } else if (layerBytesInUse + bytes > layerBudgetBytes) {
+                decision = LAYER_SKIPPED_OVER_BUDGET;
+            } else {
+                decision = LAYER_PROMOTED;
+                layerBytesInUse += bytes;
+            }
+
+            LayerDecisionListener listener = layerDecisionListener;
+            if (listener != null) {
+                listener.onLayerDecision(view, decision, bytes, layerBytesInUse, layerBudgetBytes);
+            }
+            return decision == LAYER_PROMOTED ? bytes : 0;
+        }
+
+        static void releaseLayer(long bytes) {
+            layerBytesInUse = Math.max(0, layerBytesInUse - bytes);
+        }
+
+        // Each animated child holds a hardware layer and transient state only while its own animation runs;
+        // the container itself is never promoted, since its content changes every frame
+        public static void applyAnimationOptimizations(ViewGroup containerView) {
             containerView.getViewTreeObserver().addOnPreDrawListener(
                 new ViewTreeObserver.OnPreDrawListener() {
                     @Override
@@ -186,12 +606,19 @@ public class AnimationManager {
                 });
         }
 
+        // Reference counted: every enable needs a matching disable, and the layer stays while any animation holds it.
+        // The layer policy still applies, so an oversized view or one over budget is left without a layer.
         public static void enableHardwareAcceleration(View targetView) {
-            targetView.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+            LayerScope.of(targetView).acquire(PROPERTY_TRANSFORM | PROPERTY_ALPHA);
         }
 
         public static void disableHardwareAcceleration(View targetView) {
-            targetView.setLayerType(View.LAYER_TYPE_NONE, null);
+            LayerScope.of(targetView).release();
+        }
+
+        // Holds targetView from the animator's start until it ends or is cancelled; properties is a PROPERTY_* mask
+        public static void bindHardwareLayer(View targetView, Animator animator, int properties) {
+            LayerScope.of(targetView).bind(animator, properties);
         }
     }
 
@@ -199,6 +626,8 @@ public class AnimationManager {
         private final View animatedView;
         private static float touchOffsetX;
         private static float touchOffsetY;
+        // The running swipe or its spring-back; a new touch takes the view over from either
+        private Animator swipeAnimator;
 
         public TouchGestureHandler(View animatedView) {
             this.animatedView = animatedView;
@@ -214,65 +643,90 @@ public class AnimationManager {
         }
 
         private boolean startSwipeRightAnimation(View targetView) {
-            targetView.animate()
-                .translationX(300f)
-                .alpha(0f)
-                .setDuration(300)
-                .setInterpolator(new AccelerateInterpolator())
-                .withEndAction(() -> resetViewPosition(targetView))
-                .start();
-            return true;
+            return startSwipeAnimation("swipeRight", targetView, View.TRANSLATION_X, 300f);
         }
 
         private boolean startSwipeLeftAnimation(View targetView) {
-            targetView.animate()
-                .translationX(-300f)
-                .alpha(0f)
-                .setDuration(300)
-                .setInterpolator(new AccelerateInterpolator())
-                .withEndAction(() -> resetViewPosition(targetView))
-                .start();
-            return true;
+            return startSwipeAnimation("swipeLeft", targetView, View.TRANSLATION_X, -300f);
         }
 
         private boolean startSwipeUpAnimation(View targetView) {
-            targetView.animate()
-                .translationY(-300f)
-                .alpha(0f)
-                .setDuration(300)
-                .setInterpolator(new AccelerateInterpolator())
-                .withEndAction(() -> resetViewPosition(targetView))
-                .start();
-            return true;
+            return startSwipeAnimation("swipeUp", targetView, View.TRANSLATION_Y, -300f);
         }
 
         private boolean startSwipeDownAnimation(View targetView) {
-            targetView.animate()
-                .translationY(300f)
-                .alpha(0f)
-                .setDuration(300)
-                .setInterpolator(new AccelerateInterpolator())
-                .withEndAction(() -> resetViewPosition(targetView))
-                .start();
+            return startSwipeAnimation("swipeDown", targetView, View.TRANSLATION_Y, 300f);
+        }
+
+        private boolean startSwipeAnimation(String name, View targetView, Property<View, Float> axis, float distance) {
+            ObjectAnimator animator = ObjectAnimator.ofPropertyValuesHolder(targetView,
+                PropertyValuesHolder.ofFloat(axis, distance),
+                PropertyValuesHolder.ofFloat(View.ALPHA, 0f));
+            animator.setDuration(300);
+            animator.setInterpolator(InterpolatorRegistry.accelerate());
+            animator.addListener(new AnimatorListenerAdapter() {
+                private boolean canceled;
+
+                @Override
+                public void onAnimationCancel(Animator animation) {
+                    canceled = true;
+                }
+
+                @Override
+                public void onAnimationEnd(Animator animation) {
+                    clearSwipeAnimator(animation);
+                    // Like withEndAction: only a swipe that played out springs the view back
+                    if (!canceled) {
+                        resetViewPosition(targetView);
+                    }
+                }
+            });
+            LayerScope.of(targetView).bind(animator,
+                AnimationPerformanceOptimizer.PROPERTY_TRANSFORM | AnimationPerformanceOptimizer.PROPERTY_ALPHA);
+            AnimationMetrics.track(name, animator);
+            cancelSwipe();
+            swipeAnimator = animator;
+            animator.start();
             return true;
         }
 
         private void resetViewPosition(View targetView) {
-            targetView.animate()
-                .translationX(0f)
-                .translationY(0f)
-                .alpha(1f)
-                .setDuration(200)
-                .start();
+            ObjectAnimator animator = ObjectAnimator.ofPropertyValuesHolder(targetView,
+                PropertyValuesHolder.ofFloat(View.TRANSLATION_X, 0f),
+                PropertyValuesHolder.ofFloat(View.TRANSLATION_Y, 0f),
+                PropertyValuesHolder.ofFloat(View.ALPHA, 1f));
+            animator.setDuration(200);
+            animator.addListener(new AnimatorListenerAdapter() {
+                @Override
+                public void onAnimationEnd(Animator animation) {
+                    clearSwipeAnimator(animation);
+                }
+            });
+            LayerScope.of(targetView).bind(animator,
+                AnimationPerformanceOptimizer.PROPERTY_TRANSFORM | AnimationPerformanceOptimizer.PROPERTY_ALPHA);
+            AnimationMetrics.track("swipeReset", animator);
+            swipeAnimator = animator;
+            animator.start();
+        }
+
+        // Stops the swipe where it is, so a drag starts from the view's current position instead of fighting it
+        void cancelSwipe() {
+            if (swipeAnimator != null) {
+                swipeAnimator.cancel();
+            }
+        }
+
+        private void clearSwipeAnimator(Animator animation) {
+            if (swipeAnimator == animation) {
+                swipeAnimator = null;
+            }
         }
 
         public static void initializeSwipeableView(View swipeableView) {
             if (swipeableView == null) return;
 
-            GestureDetector gestureDetector = new GestureDetector(
-                swipeableView.getContext(), 
-                new TouchGestureHandler(swipeableView)
-            );
+            TouchGestureHandler gestureHandler = new TouchGestureHandler(swipeableView);
+            GestureDetector gestureDetector = new GestureDetector(swipeableView.getContext(), gestureHandler);
 
             swipeableView.setOnTouchListener((view, event) -> {
                 try {
@@ -282,17 +736,16 @@ public class AnimationManager {
 
                     switch (event.getActionMasked()) {
                         case MotionEvent.ACTION_DOWN:
+                            gestureHandler.cancelSwipe();
                             touchOffsetX = view.getX() - event.getRawX();
                             touchOffsetY = view.getY() - event.getRawY();
                             AnimationManager.AnimationEffectsCreator.startBounceAnimation(view);
                             break;
 
                         case MotionEvent.ACTION_MOVE:
-                            view.animate()
-                                .x(event.getRawX() + touchOffsetX)
-                                .y(event.getRawY() + touchOffsetY)
-                                .setDuration(0)
-                                .start();
+                            // Set directly: the finger owns the position, and no animator is left to outlive the drag
+                            view.setX(event.getRawX() + touchOffsetX);
+                            view.setY(event.getRawY() + touchOffsetY);
                             break;
 
                         case MotionEvent.ACTION_UP:
@@ -310,32 +763,227 @@ public class AnimationManager {
         }
     }
 
-    private static class CustomSpringInterpolator implements TimeInterpolator {
-        private float springTension = 0.7f;
+    // One controller per container, kept in a view tag. Completion follows the children's own end callbacks with a
+    // timeout only as a backstop; starting again or cancel() supersedes the exit that is running.
+    public static class ExitAnimationController {
+        // Bottom child leaves first, the way a screen unwinds
+        public static final int ORDER_REVERSE = 0;
+        public static final int ORDER_FORWARD = 1;
+        // Nearest to the touch point leaves first; see setTouchPoint
+        public static final int ORDER_FROM_TOUCH_POINT = 2;
+
+        private static final long EXIT_CHILD_DURATION = 70;
+        private static final long EXIT_STAGGER_DELAY = 20;
+        private static final long DEFAULT_MAX_TOTAL_DURATION = 250;
+        private static final long SAFETY_TIMEOUT_MARGIN = 250;
+
+        private final LinearLayout contentContainer;
+        // Shared by every child; the engine runs it when a child's exit ends, is cancelled or is replaced
+        private final Runnable childEndAction = this::onChildExitEnded;
+        private final Runnable timeoutAction = this::complete;
+
+        private int order = ORDER_REVERSE;
+        private boolean visibleOnly = true;
+        private boolean hasTouchPoint;
+        private float touchX;
+        private float touchY;
+        private long maxTotalDuration = DEFAULT_MAX_TOTAL_DURATION;
+
+        // Participating children in exit order, with their sort keys; reused between exits. Views rather than indexes,
+        // so nothing that changes the children while the exit starts can shift what an entry points at.
+        private View[] exitViews = new View[0];
+        private float[] exitKeys = new float[0];
+
+        private Runnable completionAction;
+        private Runnable metricsEnd;
+        private int remaining;
+        private boolean running;
+
+        private ExitAnimationController(LinearLayout contentContainer) {
+            this.contentContainer = contentContainer;
+        }
 
-        @Override
-        public float getInterpolation(float progress) {
-            float x = progress * 2;
-            return (float) (1 - (1 - progress) * (1 - progress) * Math.exp(-springTension * x));
+        // The container's controller, for configuring the choreography before the exit starts
+        public static ExitAnimationController of(LinearLayout contentContainer) {
+            Object tag = contentContainer.getTag(R.id.animation_pro_exit_controller);
+            if (tag instanceof ExitAnimationController) {
+                return (ExitAnimationController) tag;
+            }
+            ExitAnimationController controller = new ExitAnimationController(contentContainer);
+            contentContainer.setTag(R.id.animation_pro_exit_controller, controller);
+            return controller;
         }
-    }
 
-    public static class ExitAnimationController {
+        // Stays void for existing callers; of(contentContainer) returns the controller this runs on
         public static void startExitAnimation(LinearLayout contentContainer, Runnable completionAction) {
+            of(contentContainer).start(completionAction);
+        }
+
+        public ExitAnimationController setOrder(int order) {
+            this.order = order;
+            return this;
+        }
+
+        // When true (the default) children outside the visible window are skipped entirely
+        public ExitAnimationController setVisibleOnly(boolean visibleOnly) {
+            this.visibleOnly = visibleOnly;
+            return this;
+        }
+
+        // In contentContainer coordinates; without one ORDER_FROM_TOUCH_POINT spreads out from the container's center
+        public ExitAnimationController setTouchPoint(float x, float y) {
+            hasTouchPoint = true;
+            touchX = x;
+            touchY = y;
+            return this;
+        }
+
+        // Upper bound from the first child leaving to the last one gone; the stagger shrinks to fit it
+        public ExitAnimationController setMaxTotalDuration(long maxTotalDuration) {
+            this.maxTotalDuration = maxTotalDuration > 0 ? maxTotalDuration : DEFAULT_MAX_TOTAL_DURATION;
+            return this;
+        }
+
+        public static void cancelExitAnimation(LinearLayout contentContainer) {
+            Object tag = contentContainer.getTag(R.id.animation_pro_exit_controller);
+            if (tag instanceof ExitAnimationController) {
+                ((ExitAnimationController) tag).cancel();
+            }
+        }
+
+        public boolean isRunning() {
+            return running;
+        }
+
+        // Stops the exit without running its completion and brings the children back
+        public void cancel() {
+            if (!running) {
+                return;
+            }
+            stop();
+            for (int i = 0; i < contentContainer.getChildCount(); i++) {
+                View childView = contentContainer.getChildAt(i);
+                if (SmoothAnimationCreator.isExiting(childView)) {
+                    continue;
+                }
+                childView.setTranslationY(0f);
+                childView.setAlpha(1f);
+            }
+        }
+
+        public void start(Runnable completion) {
+            // A second back press takes over from wherever the first exit got to
+            stop();
+
+            int exitCount = collectExitOrder();
+            long stagger = EXIT_STAGGER_DELAY;
+            if (exitCount > 1) {
+                // Long screens share the capped span instead of paying 20 ms per child
+                stagger = Math.min(EXIT_STAGGER_DELAY,
+                    Math.max(0, maxTotalDuration - EXIT_CHILD_DURATION) / (exitCount - 1));
+            }
+
+            FrameAnimationEngine engine = FrameAnimationEngine.getInstance();
+            TimeInterpolator interpolator = InterpolatorRegistry.accelerate();
+            for (int rank = 0; rank < exitCount; rank++) {
+                View childView = exitViews[rank];
+                exitViews[rank] = null;
+                engine.animate(childView, rank * stagger, EXIT_CHILD_DURATION,
+                    childView.getTranslationY(), 100f, childView.getAlpha(), 0f, interpolator, childEndAction);
+            }
+
+            long expectedDuration = Math.max(0, exitCount - 1) * stagger + EXIT_CHILD_DURATION;
+            completionAction = completion;
+            metricsEnd = AnimationMetrics.begin("exit", expectedDuration);
+            remaining = exitCount;
+            running = true;
+            if (exitCount == 0) {
+                complete();
+                return;
+            }
+            AnimationClock.getInstance().postDelayed(timeoutAction, expectedDuration + SAFETY_TIMEOUT_MARGIN);
+        }
+
+        // Fills exitViews with the children that take part, first to leave first; returns how many there are
+        private int collectExitOrder() {
             int childCount = contentContainer.getChildCount();
+            if (exitViews.length < childCount) {
+                exitViews = new View[childCount];
+                exitKeys = new float[childCount];
+            }
+            float originX = hasTouchPoint ? touchX : contentContainer.getWidth() / 2f;
+            float originY = hasTouchPoint ? touchY : contentContainer.getHeight() / 2f;
 
-            for (int i = childCount - 1; i >= 0; i--) {
+            int count = 0;
+            for (int i = 0; i < childCount; i++) {
                 View childView = contentContainer.getChildAt(i);
-                childView.animate()
-                    .translationY(100f)
-                    .alpha(0f)
-                    .setDuration(70)
-                    .setStartDelay(i * 20)
-                    .setInterpolator(new AccelerateInterpolator())
-                    .start();
+                // A child already leaving through updateListViewItems finishes that exit instead
+                if (SmoothAnimationCreator.isExiting(childView)
+                        || childView.getVisibility() != View.VISIBLE
+                        || (visibleOnly && !SmoothAnimationCreator.isInViewport(childView))) {
+                    continue;
+                }
+                float key;
+                if (order == ORDER_FORWARD) {
+                    key = i;
+                } else if (order == ORDER_FROM_TOUCH_POINT) {
+                    float dx = (childView.getLeft() + childView.getRight()) / 2f - originX;
+                    float dy = (childView.getTop() + childView.getBottom()) / 2f - originY;
+                    key = dx * dx + dy * dy;
+                } else {
+                    key = -i;
+                }
+                // Insertion sort: only the visible children take part, so the list stays short
+                int slot = count++;
+                while (slot > 0 && exitKeys[slot - 1] > key) {
+                    exitKeys[slot] = exitKeys[slot - 1];
+                    exitViews[slot] = exitViews[slot - 1];
+                    slot--;
+                }
+                exitKeys[slot] = key;
+                exitViews[slot] = childView;
             }
+            return count;
+        }
 
-            new Handler(Looper.getMainLooper()).postDelayed(completionAction, childCount * 30 + 200);
+        private void onChildExitEnded() {
+            if (running && --remaining == 0) {
+                complete();
+            }
+        }
+
+        private void complete() {
+            if (!running) {
+                return;
+            }
+            Runnable action = completionAction;
+            stop();
+            if (action != null) {
+                action.run();
+            }
+        }
+
+        private void stop() {
+            boolean wasRunning = running;
+            // Cleared first, so end actions the engine runs for the cancelled children below are ignored
+            running = false;
+            completionAction = null;
+            AnimationClock.getInstance().removeCallbacks(timeoutAction);
+            if (metricsEnd != null) {
+                metricsEnd.run();
+                metricsEnd = null;
+            }
+            if (wasRunning && remaining > 0) {
+                FrameAnimationEngine engine = FrameAnimationEngine.getInstance();
+                for (int i = 0; i < contentContainer.getChildCount(); i++) {
+                    View childView = contentContainer.getChildAt(i);
+                    // Cancelling a list exit would run its removal and shift the children under this loop
+                    if (!SmoothAnimationCreator.isExiting(childView)) {
+                        engine.cancel(childView);
+                    }
+                }
+            }
+            remaining = 0;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.kilobyte;
+
+public final class AnimationMath {
+
+    private static final int NEWTON_ITERATIONS = 8;
+    private static final float BEZIER_EPSILON = 1e-5f;
+
+    private AnimationMath() {
+    }
+
+    public static float lerp(float start, float end, float fraction) {
+        return start + (end - start) * fraction;
+    }
+
+    public static float clamp(float value, float min, float max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    // Overscroll distance after a drag of delta, damped by resistance and kept within +/- maxDistance
+    public static float applyResistance(float current, float delta, float resistance, float maxDistance) {
+        return clamp(current + delta * resistance, -maxDistance, maxDistance);
+    }
+
+    // Downward pull distance for a drag from startY to currentY; values <= 0 mean the user is not pulling down
+    public static float pullOffset(float startY, float currentY, float resistance, float maxDistance) {
+        return Math.min((currentY - startY) * resistance, maxDistance);
+    }
+
+    // 1 - (1 - p)^2 * e^(-tension * 2p): the entrance curve used by CustomSpringInterpolator
+    public static float springInterpolation(float progress, float tension) {
+        float remaining = 1f - progress;
+        return (float) (1 - remaining * remaining * Math.exp(-tension * progress * 2));
+    }
+
+    // CSS-style cubic-bezier(x1, y1, x2, y2) evaluated at x, without relying on PathInterpolator
+    public static float cubicBezier(float x1, float y1, float x2, float y2, float x) {
+        if (x <= 0f) {
+            return 0f;
+        }
+        if (x >= 1f) {
+            return 1f;
+        }
+
+        float t = x;
+        for (int i = 0; i < NEWTON_ITERATIONS; i++) {
+            float error = bezierCoordinate(t, x1, x2) - x;
+            if (Math.abs(error) < BEZIER_EPSILON) {
+                return bezierCoordinate(t, y1, y2);
+            }
+            float slope = bezierSlope(t, x1, x2);
+            if (Math.abs(slope) < 1e-6f) {
+                break;
+            }
+            t = Math.max(0f, Math.min(1f, t - error / slope));
+        }
+
+        // Newton did not converge (flat segment), fall back to bisection
+        float low = 0f;
+        float high = 1f;
+        t = x;
+        while (high - low > BEZIER_EPSILON) {
+            if (bezierCoordinate(t, x1, x2) < x) {
+                low = t;
+            } else {
+                high = t;
+            }
+            t = (low + high) * 0.5f;
+        }
+        return bezierCoordinate(t, y1, y2);
+    }
+
+    // Linear blend between the two samples surrounding input; table[0] is input 0, table[last] is input 1
+    public static float lookup(float[] table, float input) {
+        int last = table.length - 1;
+        if (input <= 0f) {
+            return table[0];
+        }
+        if (input >= 1f) {
+            return table[last];
+        }
+        float position = input * last;
+        int index = (int) position;
+        if (index >= last) {
+            return table[last];
+        }
+        float blend = position - index;
+        return table[index] + (table[index + 1] - table[index]) * blend;
+    }
+
+    private static float bezierCoordinate(float t, float p1, float p2) {
+        float u = 1f - t;
+        return 3f * u * u * t * p1 + 3f * u * t * t * p2 + t * t * t;
+    }
+
+    private static float bezierSlope(float t, float p1, float p2) {
+        float u = 1f - t;
+        return 3f * u * u * p1 + 6f * u * t * (p2 - p1) + 3f * t * t * (1f - p2);
+    }
+}
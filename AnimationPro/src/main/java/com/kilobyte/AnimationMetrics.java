@@ -0,0 +1,255 @@
+package com.kilobyte;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.view.Choreographer;
+import androidx.dynamicanimation.animation.DynamicAnimation;
+
+/**
+ * Opt-in frame timing for the animations AnimationPro starts. Nothing is tracked and nothing
+ * is allocated until a {@link Listener} is installed; trackers are pooled once it is.
+ * All methods must be called on the main thread.
+ */
+public final class AnimationMetrics {
+
+    public interface Listener {
+        // The result object is reused; copy what you need before returning
+        void onAnimationMeasured(Result result);
+    }
+
+    public static final class Result {
+        private String name;
+        private long startLatencyNanos;
+        private long requestedDurationNanos;
+        private long actualDurationNanos;
+        private int framesRendered;
+        private int framesOverBudget;
+        private long worstFrameNanos;
+
+        public String getName() {
+            return name;
+        }
+
+        public long getStartLatencyNanos() {
+            return startLatencyNanos;
+        }
+
+        public long getRequestedDurationNanos() {
+            return requestedDurationNanos;
+        }
+
+        public long getActualDurationNanos() {
+            return actualDurationNanos;
+        }
+
+        public int getFramesRendered() {
+            return framesRendered;
+        }
+
+        public int getFramesOverBudget() {
+            return framesOverBudget;
+        }
+
+        public long getWorstFrameNanos() {
+            return worstFrameNanos;
+        }
+    }
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final long DEFAULT_FRAME_BUDGET_NANOS = 16_666_667L;
+
+    private static Listener listener;
+    private static long frameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+    private static Tracker freeTrackers;
+
+    private AnimationMetrics() {
+    }
+
+    public static void setListener(Listener metricsListener) {
+        listener = metricsListener;
+    }
+
+    public static boolean isEnabled() {
+        return listener != null;
+    }
+
+    // A frame counts as over budget once it misses at least one vsync (interval > 1.5 budgets)
+    public static void setFrameBudgetNanos(long budgetNanos) {
+        frameBudgetNanos = budgetNanos > 0 ? budgetNanos : DEFAULT_FRAME_BUDGET_NANOS;
+    }
+
+    public static void track(String name, Animator animator) {
+        if (listener == null) {
+            return;
+        }
+        track(name, animator, animator.getStartDelay() + Math.max(0, animator.getDuration()));
+    }
+
+    // For animators whose own duration does not describe them, e.g. a sequential AnimatorSet
+    public static void track(String name, Animator animator, long requestedDuration) {
+        if (listener == null) {
+            return;
+        }
+        Tracker tracker = obtain(name, requestedDuration);
+        tracker.animator = animator;
+        animator.addListener(tracker);
+    }
+
+    public static void track(String name, DynamicAnimation<?> animation) {
+        if (listener == null) {
+            return;
+        }
+        Tracker tracker = obtain(name, 0);
+        tracker.dynamicAnimation = animation;
+        animation.addEndListener(tracker);
+        tracker.start();
+    }
+
+    // For animations without an Animator, e.g. FrameAnimationEngine groups; run the tracker to finish it
+    static Tracker begin(String name, long requestedDuration) {
+        if (listener == null) {
+            return null;
+        }
+        Tracker tracker = obtain(name, requestedDuration);
+        tracker.start();
+        return tracker;
+    }
+
+    private static Tracker obtain(String name, long requestedDuration) {
+        Tracker tracker = freeTrackers;
+        if (tracker != null) {
+            freeTrackers = tracker.next;
+            tracker.next = null;
+        } else {
+            tracker = new Tracker();
+        }
+        tracker.name = name;
+        tracker.requestedDurationNanos = requestedDuration * NANOS_PER_MILLI;
+        return tracker;
+    }
+
+    static final class Tracker extends AnimatorListenerAdapter
+            implements Choreographer.FrameCallback, Runnable, DynamicAnimation.OnAnimationEndListener {
+
+        private final Result result = new Result();
+
+        private String name;
+        private long requestedDurationNanos;
+        private long startTime;
+        private long firstFrameTime;
+        private long lastFrameTime;
+        private int frames;
+        private int framesOverBudget;
+        private long worstFrame;
+        private boolean running;
+
+        private Animator animator;
+        private DynamicAnimation<?> dynamicAnimation;
+        private Tracker next;
+
+        void start() {
+            startTime = AnimationClock.getInstance().nanoTime();
+            firstFrameTime = 0;
+            lastFrameTime = 0;
+            frames = 0;
+            framesOverBudget = 0;
+            worstFrame = 0;
+            if (!running) {
+                running = true;
+                AnimationClock.getInstance().postFrameCallback(this);
+            }
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (!running) {
+                return;
+            }
+            if (firstFrameTime == 0) {
+                firstFrameTime = frameTimeNanos;
+            } else {
+                long frameTime = frameTimeNanos - lastFrameTime;
+                if (frameTime > worstFrame) {
+                    worstFrame = frameTime;
+                }
+                if (frameTime * 2 > frameBudgetNanos * 3) {
+                    framesOverBudget++;
+                }
+            }
+            lastFrameTime = frameTimeNanos;
+            frames++;
+            AnimationClock.getInstance().postFrameCallback(this);
+        }
+
+        private void report() {
+            Listener metricsListener = listener;
+            if (metricsListener == null) {
+                return;
+            }
+            long endTime = AnimationClock.getInstance().nanoTime();
+            result.name = name;
+            result.startLatencyNanos = firstFrameTime != 0 ? Math.max(0, firstFrameTime - startTime) : 0;
+            result.requestedDurationNanos = requestedDurationNanos;
+            result.actualDurationNanos = endTime - startTime;
+            result.framesRendered = frames;
+            result.framesOverBudget = framesOverBudget;
+            result.worstFrameNanos = worstFrame;
+            metricsListener.onAnimationMeasured(result);
+        }
+
+        private void finish() {
+            if (name == null) {
+                // Already back in the pool
+                return;
+            }
+            if (running) {
+                running = false;
+                AnimationClock.getInstance().removeFrameCallback(this);
+                report();
+            }
+            recycle();
+        }
+
+        private void recycle() {
+            if (animator != null) {
+                animator.removeListener(this);
+                animator = null;
+            }
+            if (dynamicAnimation != null) {
+                dynamicAnimation.removeEndListener(this);
+                dynamicAnimation = null;
+            }
+            name = null;
+            result.name = null;
+            next = freeTrackers;
+            freeTrackers = this;
+        }
+
+        @Override
+        public void onAnimationStart(Animator animation) {
+            start();
+        }
+
+        @Override
+        public void onAnimationRepeat(Animator animation) {
+            // Infinite animations report one result per cycle
+            report();
+            start();
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            finish();
+        }
+
+        @Override
+        public void onAnimationEnd(DynamicAnimation animation, boolean canceled, float value, float velocity) {
+            finish();
+        }
+
+        @Override
+        public void run() {
+            finish();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.kilobyte;
+
+import android.view.animation.Interpolator;
+
+final class CubicBezierInterpolator implements Interpolator {
+    private final float x1;
+    private final float y1;
+    private final float x2;
+    private final float y2;
+
+    CubicBezierInterpolator(float x1, float y1, float x2, float y2) {
+        this.x1 = x1;
+        this.y1 = y1;
+        this.x2 = x2;
+        this.y2 = y2;
+    }
+
+    @Override
+    public float getInterpolation(float input) {
+        return AnimationMath.cubicBezier(x1, y1, x2, y2, input);
+    }
+}
@@ -0,0 +1,20 @@
+package com.kilobyte;
+
+import android.view.animation.Interpolator;
+
+final class CustomSpringInterpolator implements Interpolator {
+    private final float springTension;
+
+    CustomSpringInterpolator() {
+        this(0.7f);
+    }
+
+    CustomSpringInterpolator(float springTension) {
+        this.springTension = springTension;
+    }
+
+    @Override
+    public float getInterpolation(float progress) {
+        return AnimationMath.springInterpolation(progress, springTension);
+    }
+}
@@ -5,61 +5,50 @@ import android.animation.AnimatorListenerAdapter;
 import android.animation.ValueAnimator;
 import android.view.View;
 import android.view.ViewGroup;
-import android.view.animation.AccelerateDecelerateInterpolator; // إضافة المروِّج البديل
 
 public class CustomTransition {
     private View sourceView;
     private View targetView;
     private ViewGroup rootView;
     private long duration = 300; // مدة الانتقال بالميللي ثانية
+    private boolean scaleTransformEnabled = true; // التحجيم عبر scale بدلاً من requestLayout
+    private final ViewBoundsResolver sourceBounds;
 
     public CustomTransition(View sourceView, View targetView, ViewGroup rootView) {
         this.sourceView = sourceView;
         this.targetView = targetView;
         this.rootView = rootView;
+        this.sourceBounds = new ViewBoundsResolver(sourceView, rootView);
     }
 
     public void startTransition() {
-        // حفظ الموقع الأصلي للعناصر
-        final float startX = sourceView.getX();
-        final float startY = sourceView.getY();
-        final float startWidth = sourceView.getWidth();
-        final float startHeight = sourceView.getHeight();
-
-        // حساب الموقع النهائي
-        int[] targetLocation = new int[2];
-        targetView.getLocationInWindow(targetLocation);
-        final float endX = targetLocation[0];
-        final float endY = targetLocation[1];
-        final float endWidth = targetView.getWidth();
-        final float endHeight = targetView.getHeight();
+        // حساب حدود المصدر في نظام إحداثيات rootView، ثم حدود الهدف داخل حالة هذا التشغيل
+        sourceBounds.attach();
+        final TransitionRun run = new TransitionRun(
+                sourceBounds.getX(), sourceBounds.getY(), sourceBounds.getWidth(), sourceBounds.getHeight());
+        sourceBounds.detach();
 
         // إنشاء نسخة مؤقتة من العنصر للانتقال
-        final View transitionView = createTransitionView(sourceView);
+        final View transitionView = createTransitionView(sourceView, run.startX, run.startY);
         rootView.addView(transitionView);
 
+        // في وضع التحويل يبقى حجم النسخة ثابتاً ويتغير scale فقط، فلا يحدث measure/layout في كل إطار
+        final boolean useTransform = scaleTransformEnabled && run.startWidth > 0 && run.startHeight > 0;
+        if (useTransform) {
+            transitionView.setPivotX(0f);
+            transitionView.setPivotY(0f);
+            transitionView.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+        }
+
         // إنشاء الأنيميشن
         ValueAnimator animator = ValueAnimator.ofFloat(0f, 1f);
         animator.setDuration(duration);
-        animator.setInterpolator(new AccelerateDecelerateInterpolator()); // استخدام المروِّج الجديد
+        animator.setInterpolator(InterpolatorRegistry.accelerateDecelerate()); // استخدام المروِّج الجديد
 
         animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
             @Override
             public void onAnimationUpdate(ValueAnimator animation) {
-                float fraction = animation.getAnimatedFraction();
-                
-                // حساب القيم الحالية باستخدام التداخل
-                float currentX = lerp(startX, endX, fraction);
-                float currentY = lerp(startY, endY, fraction);
-                float currentWidth = lerp(startWidth, endWidth, fraction);
-                float currentHeight = lerp(startHeight, endHeight, fraction);
-
-                // تحديث موقع وحجم العنصر المؤقت
-                transitionView.setX(currentX);
-                transitionView.setY(currentY);
-                transitionView.getLayoutParams().width = (int) currentWidth;
-                transitionView.getLayoutParams().height = (int) currentHeight;
-                transitionView.requestLayout();
+                run.update(transitionView, animation.getAnimatedFraction(), useTransform);
             }
         });
 
@@ -67,6 +56,8 @@ public class CustomTransition {
             @Override
             public void onAnimationEnd(Animator animation) {
                 // إزالة العنصر المؤقت بعد انتهاء الانتقال
+                run.targetBounds.detach();
+                transitionView.setLayerType(View.LAYER_TYPE_NONE, null);
                 rootView.removeView(transitionView);
                 targetView.setVisibility(View.VISIBLE);
             }
@@ -74,30 +65,98 @@ public class CustomTransition {
 
         // إخفاء العنصر الهدف أثناء الانتقال
         targetView.setVisibility(View.INVISIBLE);
+        AnimationMetrics.track("customTransition", animator);
         animator.start();
     }
 
     // دالة مساعدة لإنشاء نسخة من العنصر للانتقال
-    private View createTransitionView(View source) {
+    private View createTransitionView(View source, float x, float y) {
         // إنشاء نسخة من العنصر المصدر
         View transitionView = new View(source.getContext());
         transitionView.setLayoutParams(new ViewGroup.LayoutParams(
                 source.getWidth(),
                 source.getHeight()
         ));
-        transitionView.setX(source.getX());
-        transitionView.setY(source.getY());
+        transitionView.setX(x);
+        transitionView.setY(y);
         transitionView.setBackground(source.getBackground());
         return transitionView;
     }
 
-    // دالة مساعدة للتداخل الخطي
-    private float lerp(float start, float end, float fraction) {
-        return start + (end - start) * fraction;
+    // حالة تشغيل واحد: لكل استدعاء لـ startTransition نسخته الخاصة، فلا يغيّر تشغيل جديد ما يقرؤه تشغيل ما زال جارياً
+    private final class TransitionRun {
+        private final ViewBoundsResolver targetBounds = new ViewBoundsResolver(targetView, rootView);
+
+        // تتغير عند إعادة التوجيه نحو هدف تحرك
+        private float startX, startY, startWidth, startHeight;
+        private float endX, endY, endWidth, endHeight;
+        private float retargetFraction;
+        private int targetVersion;
+
+        TransitionRun(float startX, float startY, float startWidth, float startHeight) {
+            this.startX = startX;
+            this.startY = startY;
+            this.startWidth = startWidth;
+            this.startHeight = startHeight;
+            // يبقى الهدف مراقَباً حتى نهاية هذا التشغيل
+            targetBounds.attach();
+            readTargetBounds();
+        }
+
+        void update(View transitionView, float fraction, boolean useTransform) {
+            // إذا تحرك الهدف أثناء الانتقال نبدأ من الموقع الحالي نحو الموقع الجديد دون قفزة
+            if (targetBounds.getVersion() != targetVersion) {
+                retarget(transitionView, fraction);
+            }
+            float progress = retargetFraction < 1f
+                    ? (fraction - retargetFraction) / (1f - retargetFraction)
+                    : 1f;
+
+            // حساب القيم الحالية باستخدام التداخل
+            float currentX = AnimationMath.lerp(startX, endX, progress);
+            float currentY = AnimationMath.lerp(startY, endY, progress);
+            float currentWidth = AnimationMath.lerp(startWidth, endWidth, progress);
+            float currentHeight = AnimationMath.lerp(startHeight, endHeight, progress);
+
+            // تحديث موقع وحجم العنصر المؤقت
+            transitionView.setX(currentX);
+            transitionView.setY(currentY);
+            if (useTransform) {
+                transitionView.setScaleX(currentWidth / transitionView.getLayoutParams().width);
+                transitionView.setScaleY(currentHeight / transitionView.getLayoutParams().height);
+            } else {
+                transitionView.getLayoutParams().width = (int) currentWidth;
+                transitionView.getLayoutParams().height = (int) currentHeight;
+                transitionView.requestLayout();
+            }
+        }
+
+        private void readTargetBounds() {
+            endX = targetBounds.getX();
+            endY = targetBounds.getY();
+            endWidth = targetBounds.getWidth();
+            endHeight = targetBounds.getHeight();
+            targetVersion = targetBounds.getVersion();
+        }
+
+        // الموقع الحالي للنسخة يصبح نقطة البداية، والجزء المتبقي من الأنيميشن يقطع المسافة إلى الهدف الجديد
+        private void retarget(View transitionView, float fraction) {
+            startX = transitionView.getX();
+            startY = transitionView.getY();
+            startWidth = transitionView.getLayoutParams().width * transitionView.getScaleX();
+            startHeight = transitionView.getLayoutParams().height * transitionView.getScaleY();
+            retargetFraction = fraction;
+            readTargetBounds();
+        }
     }
 
     // تعيين مدة الانتقال
     public void setDuration(long duration) {
         this.duration = duration;
     }
+
+    // تعطيل وضع التحويل والعودة لتغيير الحجم الفعلي، للخلفيات التي لا تتحمل التحجيم (مثل nine-patch)
+    public void setScaleTransformEnabled(boolean enabled) {
+        this.scaleTransformEnabled = enabled;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,209 @@
+package com.kilobyte;
+
+import android.animation.TimeInterpolator;
+import android.view.Choreographer;
+import android.view.View;
+import java.util.Arrays;
+
+final class FrameAnimationEngine implements Choreographer.FrameCallback {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private static FrameAnimationEngine instance;
+
+    // One slot per running child animation, kept in flat arrays so a frame is a single pass
+    private View[] views = new View[INITIAL_CAPACITY];
+    // Each slot holds its view's hardware layer from animate() until it finishes, is cancelled or replaced
+    private LayerScope[] layers = new LayerScope[INITIAL_CAPACITY];
+    private TimeInterpolator[] interpolators = new TimeInterpolator[INITIAL_CAPACITY];
+    private Runnable[] endActions = new Runnable[INITIAL_CAPACITY];
+    private long[] startTimes = new long[INITIAL_CAPACITY];
+    private long[] durations = new long[INITIAL_CAPACITY];
+    private float[] fromTranslationY = new float[INITIAL_CAPACITY];
+    private float[] toTranslationY = new float[INITIAL_CAPACITY];
+    private float[] fromAlpha = new float[INITIAL_CAPACITY];
+    private float[] toAlpha = new float[INITIAL_CAPACITY];
+    private int count;
+
+    private Runnable[] pendingEndActions = new Runnable[INITIAL_CAPACITY];
+    private boolean frameScheduled;
+
+    private FrameAnimationEngine() {
+    }
+
+    static FrameAnimationEngine getInstance() {
+        if (instance == null) {
+            instance = new FrameAnimationEngine();
+        }
+        return instance;
+    }
+
+    void animate(View view, long startDelay, long duration,
+                 float startTranslationY, float endTranslationY,
+                 float startAlpha, float endAlpha,
+                 TimeInterpolator interpolator, Runnable endAction) {
+        int index = indexOf(view);
+        Runnable replacedEndAction = null;
+        if (index < 0) {
+            ensureCapacity(count + 1);
+            index = count++;
+            layers[index] = LayerScope.of(view);
+            layers[index].acquire(AnimationManager.AnimationPerformanceOptimizer.PROPERTY_TRANSFORM
+                    | AnimationManager.AnimationPerformanceOptimizer.PROPERTY_ALPHA);
+        } else {
+            replacedEndAction = endActions[index];
+        }
+
+        views[index] = view;
+        interpolators[index] = interpolator;
+        endActions[index] = endAction;
+        startTimes[index] = AnimationClock.getInstance().nanoTime() + startDelay * NANOS_PER_MILLI;
+        durations[index] = duration * NANOS_PER_MILLI;
+        fromTranslationY[index] = startTranslationY;
+        toTranslationY[index] = endTranslationY;
+        fromAlpha[index] = startAlpha;
+        toAlpha[index] = endAlpha;
+
+        view.animate().cancel();
+        view.setTranslationY(startTranslationY);
+        view.setAlpha(startAlpha);
+
+        scheduleFrame();
+
+        // Like Animator end listeners, an end action still runs when its animation is cancelled or replaced
+        if (replacedEndAction != null) {
+            replacedEndAction.run();
+        }
+    }
+
+    void cancel(View view) {
+        int index = indexOf(view);
+        if (index >= 0) {
+            Runnable endAction = endActions[index];
+            layers[index].release();
+            removeAt(index);
+            if (endAction != null) {
+                endAction.run();
+            }
+        }
+    }
+
+    int getActiveCount() {
+        return count;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameScheduled = false;
+
+        int write = 0;
+        int finished = 0;
+        for (int read = 0; read < count; read++) {
+            View view = views[read];
+            long elapsed = frameTimeNanos - startTimes[read];
+
+            if (elapsed >= 0) {
+                long duration = durations[read];
+                float fraction = duration > 0 ? Math.min(1f, (float) elapsed / duration) : 1f;
+                float value = interpolators[read].getInterpolation(fraction);
+
+                view.setTranslationY(fromTranslationY[read] + (toTranslationY[read] - fromTranslationY[read]) * value);
+                view.setAlpha(fromAlpha[read] + (toAlpha[read] - fromAlpha[read]) * value);
+
+                if (fraction >= 1f) {
+                    layers[read].release();
+                    if (endActions[read] != null) {
+                        if (finished == pendingEndActions.length) {
+                            pendingEndActions = Arrays.copyOf(pendingEndActions, finished * 2);
+                        }
+                        pendingEndActions[finished++] = endActions[read];
+                    }
+                    continue;
+                }
+            }
+
+            if (write != read) {
+                moveSlot(read, write);
+            }
+            write++;
+        }
+        clearSlots(write, count);
+        count = write;
+
+        if (count > 0) {
+            scheduleFrame();
+        }
+
+        // End actions may start new animations, so they run only after the arrays are compacted
+        for (int i = 0; i < finished; i++) {
+            Runnable action = pendingEndActions[i];
+            pendingEndActions[i] = null;
+            action.run();
+        }
+    }
+
+    private void scheduleFrame() {
+        if (!frameScheduled) {
+            frameScheduled = true;
+            AnimationClock.getInstance().postFrameCallback(this);
+        }
+    }
+
+    private int indexOf(View view) {
+        for (int i = 0; i < count; i++) {
+            if (views[i] == view) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(int index) {
+        int last = count - 1;
+        if (index != last) {
+            moveSlot(last, index);
+        }
+        clearSlots(last, count);
+        count = last;
+    }
+
+    private void moveSlot(int from, int to) {
+        views[to] = views[from];
+        layers[to] = layers[from];
+        interpolators[to] = interpolators[from];
+        endActions[to] = endActions[from];
+        startTimes[to] = startTimes[from];
+        durations[to] = durations[from];
+        fromTranslationY[to] = fromTranslationY[from];
+        toTranslationY[to] = toTranslationY[from];
+        fromAlpha[to] = fromAlpha[from];
+        toAlpha[to] = toAlpha[from];
+    }
+
+    private void clearSlots(int from, int to) {
+        for (int i = from; i < to; i++) {
+            views[i] = null;
+            layers[i] = null;
+            interpolators[i] = null;
+            endActions[i] = null;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= views.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, views.length * 2);
+        views = Arrays.copyOf(views, newCapacity);
+        layers = Arrays.copyOf(layers, newCapacity);
+        interpolators = Arrays.copyOf(interpolators, newCapacity);
+        endActions = Arrays.copyOf(endActions, newCapacity);
+        startTimes = Arrays.copyOf(startTimes, newCapacity);
+        durations = Arrays.copyOf(durations, newCapacity);
+        fromTranslationY = Arrays.copyOf(fromTranslationY, newCapacity);
+        toTranslationY = Arrays.copyOf(toTranslationY, newCapacity);
+        fromAlpha = Arrays.copyOf(fromAlpha, newCapacity);
+        toAlpha = Arrays.copyOf(toAlpha, newCapacity);
+    }
+}
@@ -0,0 +1,87 @@
+package com.kilobyte;
+
+import android.animation.TimeInterpolator;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.AccelerateInterpolator;
+import android.view.animation.BounceInterpolator;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.LinearInterpolator;
+import android.view.animation.OvershootInterpolator;
+
+// Shared, stateless interpolators. Every instance handed out here is immutable and safe to reuse across animators.
+public final class InterpolatorRegistry {
+
+    public static final int DEFAULT_TABLE_SIZE = 201;
+
+    private static final TimeInterpolator LINEAR = new LinearInterpolator();
+    private static final TimeInterpolator ACCELERATE = new AccelerateInterpolator();
+    private static final TimeInterpolator DECELERATE = new DecelerateInterpolator(1.5f);
+    private static final TimeInterpolator ACCELERATE_DECELERATE = new AccelerateDecelerateInterpolator();
+    private static final TimeInterpolator OVERSHOOT = new OvershootInterpolator();
+    private static final TimeInterpolator OVERSHOOT_STRONG = new OvershootInterpolator(2.0f);
+    private static final TimeInterpolator BOUNCE = new BounceInterpolator();
+
+    private static final TimeInterpolator SPRING = new CustomSpringInterpolator();
+    private static final TimeInterpolator IOS_CURVE = new CubicBezierInterpolator(0.42f, 0f, 0.58f, 1f);
+
+    private static final TimeInterpolator SPRING_TABLE = new LookupTableInterpolator(SPRING, DEFAULT_TABLE_SIZE);
+    private static final TimeInterpolator IOS_CURVE_TABLE = new LookupTableInterpolator(IOS_CURVE, DEFAULT_TABLE_SIZE);
+
+    private InterpolatorRegistry() {
+    }
+
+    public static TimeInterpolator linear() {
+        return LINEAR;
+    }
+
+    public static TimeInterpolator accelerate() {
+        return ACCELERATE;
+    }
+
+    // Decelerate with factor 1.5, the curve used by the overscroll bounce-back
+    public static TimeInterpolator decelerate() {
+        return DECELERATE;
+    }
+
+    public static TimeInterpolator accelerateDecelerate() {
+        return ACCELERATE_DECELERATE;
+    }
+
+    public static TimeInterpolator overshoot() {
+        return OVERSHOOT;
+    }
+
+    // Overshoot with tension 2.0, the curve used by the tap response scale-up
+    public static TimeInterpolator overshootStrong() {
+        return OVERSHOOT_STRONG;
+    }
+
+    public static TimeInterpolator bounce() {
+        return BOUNCE;
+    }
+
+    public static TimeInterpolator spring() {
+        return SPRING;
+    }
+
+    public static TimeInterpolator iosCurve() {
+        return IOS_CURVE;
+    }
+
+    // Lookup-table variants: sampled once at class load, then answered with a table read and a linear blend
+    public static TimeInterpolator springTable() {
+        return SPRING_TABLE;
+    }
+
+    public static TimeInterpolator iosCurveTable() {
+        return IOS_CURVE_TABLE;
+    }
+
+    public static TimeInterpolator tabulate(TimeInterpolator source) {
+        return tabulate(source, DEFAULT_TABLE_SIZE);
+    }
+
+    public static TimeInterpolator tabulate(TimeInterpolator source, int sampleCount) {
+        return new LookupTableInterpolator(source, sampleCount);
+    }
+}
@@ -0,0 +1,100 @@
+package com.kilobyte;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.view.View;
+import androidx.dynamicanimation.animation.DynamicAnimation;
+import com.kilobyte.AnimationManager.AnimationPerformanceOptimizer;
+
+// Reference-counted hardware layer for one view: the first acquire sets transient state and, if the optimizer's
+// policy agrees, promotes the view; the last release restores both. One instance per view, cached in a view tag;
+// each bound animation gets its own listener, so nothing outlives the animation it was bound to.
+final class LayerScope implements DynamicAnimation.OnAnimationEndListener {
+    private final View view;
+    private int count;
+    private boolean promoted;
+    private long layerBytes;
+
+    private LayerScope(View view) {
+        this.view = view;
+    }
+
+    static LayerScope of(View view) {
+        Object tag = view.getTag(R.id.animation_pro_layer_scope);
+        if (tag instanceof LayerScope) {
+            return (LayerScope) tag;
+        }
+        LayerScope scope = new LayerScope(view);
+        view.setTag(R.id.animation_pro_layer_scope, scope);
+        return scope;
+    }
+
+    void acquire(int properties) {
+        if (count++ == 0) {
+            // Keeps list containers from recycling the view while it is mid-animation
+            view.setHasTransientState(true);
+        }
+        // A later acquire that animates alpha may still earn a layer the first one did not
+        if (!promoted) {
+            layerBytes = AnimationPerformanceOptimizer.requestLayer(view, properties);
+            if (layerBytes > 0) {
+                promoted = true;
+                view.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+            }
+        }
+    }
+
+    void release() {
+        if (count == 0) {
+            // Unbalanced end callback (e.g. an animator cancelled before it started); nothing is held
+            return;
+        }
+        if (--count > 0) {
+            return;
+        }
+        if (promoted) {
+            promoted = false;
+            view.setLayerType(View.LAYER_TYPE_NONE, null);
+            AnimationPerformanceOptimizer.releaseLayer(layerBytes);
+            layerBytes = 0;
+        }
+        view.setHasTransientState(false);
+    }
+
+    // Attaches to an animator that has not started yet; the scope is held from start until end or cancel
+    void bind(Animator animator, int properties) {
+        animator.addListener(new Binding(this, properties));
+    }
+
+    // Spring animations have no start callback, so the scope is taken right away
+    void bind(DynamicAnimation<?> animation, int properties) {
+        acquire(properties);
+        animation.addEndListener(this);
+    }
+
+    @Override
+    public void onAnimationEnd(DynamicAnimation animation, boolean canceled, float value, float velocity) {
+        animation.removeEndListener(this);
+        release();
+    }
+
+    private static final class Binding extends AnimatorListenerAdapter {
+        private final LayerScope scope;
+        private final int properties;
+
+        Binding(LayerScope scope, int properties) {
+            this.scope = scope;
+            this.properties = properties;
+        }
+
+        @Override
+        public void onAnimationStart(Animator animation) {
+            scope.acquire(properties);
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            scope.release();
+        }
+    }
+}
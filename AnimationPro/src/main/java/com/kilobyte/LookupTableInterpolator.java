@@ -0,0 +1,24 @@
+package com.kilobyte;
+
+import android.animation.TimeInterpolator;
+import android.view.animation.Interpolator;
+
+public final class LookupTableInterpolator implements Interpolator {
+    private final float[] table;
+
+    public LookupTableInterpolator(TimeInterpolator source, int sampleCount) {
+        if (sampleCount < 2) {
+            throw new IllegalArgumentException("sampleCount must be at least 2");
+        }
+        table = new float[sampleCount];
+        int last = sampleCount - 1;
+        for (int i = 0; i <= last; i++) {
+            table[i] = source.getInterpolation(i / (float) last);
+        }
+    }
+
+    @Override
+    public float getInterpolation(float input) {
+        return AnimationMath.lookup(table, input);
+    }
+}
@@ -0,0 +1,193 @@
+package com.kilobyte;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewGroupOverlay;
+import java.util.Arrays;
+import java.util.List;
+
+// Moves many source -> target pairs together: one ValueAnimator, one update callback and one overlay for the whole batch
+public class MultiElementTransition {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final ViewGroup rootView;
+    private long duration = 300;
+    private boolean scaleTransformEnabled = true;
+
+    private View[] sources = new View[INITIAL_CAPACITY];
+    private View[] targets = new View[INITIAL_CAPACITY];
+    private View[] proxies = new View[INITIAL_CAPACITY];
+    private float[] startX = new float[INITIAL_CAPACITY];
+    private float[] startY = new float[INITIAL_CAPACITY];
+    private float[] startWidth = new float[INITIAL_CAPACITY];
+    private float[] startHeight = new float[INITIAL_CAPACITY];
+    private float[] endX = new float[INITIAL_CAPACITY];
+    private float[] endY = new float[INITIAL_CAPACITY];
+    private float[] endWidth = new float[INITIAL_CAPACITY];
+    private float[] endHeight = new float[INITIAL_CAPACITY];
+    private int count;
+    // Scratch space for resolving bounds: each view is located with a single walk up its parents
+    private final float[] position = new float[2];
+    private final int[] viewLocation = new int[2];
+    private final int[] rootLocation = new int[2];
+    // The per-element arrays belong to one run at a time; a new start ends the running one first
+    private ValueAnimator runningAnimator;
+
+    public MultiElementTransition(ViewGroup rootView) {
+        this.rootView = rootView;
+    }
+
+    public MultiElementTransition(List<View> sourceViews, List<View> targetViews, ViewGroup rootView) {
+        this(rootView);
+        if (sourceViews.size() != targetViews.size()) {
+            throw new IllegalArgumentException("sourceViews and targetViews must have the same size");
+        }
+        for (int i = 0; i < sourceViews.size(); i++) {
+            addPair(sourceViews.get(i), targetViews.get(i));
+        }
+    }
+
+    public MultiElementTransition addPair(View sourceView, View targetView) {
+        ensureCapacity(count + 1);
+        sources[count] = sourceView;
+        targets[count] = targetView;
+        count++;
+        return this;
+    }
+
+    public MultiElementTransition setDuration(long duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    // Same fallback as CustomTransition: resize with layout passes for backgrounds that cannot scale
+    public MultiElementTransition setScaleTransformEnabled(boolean enabled) {
+        this.scaleTransformEnabled = enabled;
+        return this;
+    }
+
+    public void startTransition() {
+        if (runningAnimator != null) {
+            // Ends synchronously: the overlay is removed and the targets are shown before the arrays are reused
+            runningAnimator.cancel();
+        }
+        final int elementCount = count;
+        if (elementCount == 0) {
+            return;
+        }
+
+        final boolean useTransform = scaleTransformEnabled;
+        // Overlay views are drawn over rootView without being its children, so adding them never lays rootView out
+        final ViewGroupOverlay overlay = rootView.getOverlay();
+        for (int i = 0; i < elementCount; i++) {
+            captureBounds(i);
+            View proxy = createProxy(sources[i], i);
+            if (useTransform && startWidth[i] > 0 && startHeight[i] > 0) {
+                // Same as CustomTransition: only scale and position change, so the layer is drawn once and reused
+                proxy.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+            }
+            proxies[i] = proxy;
+            overlay.add(proxy);
+            targets[i].setVisibility(View.INVISIBLE);
+        }
+
+        final ValueAnimator animator = ValueAnimator.ofFloat(0f, 1f);
+        animator.setDuration(duration);
+        animator.setInterpolator(InterpolatorRegistry.accelerateDecelerate());
+
+        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+                float fraction = animation.getAnimatedFraction();
+                for (int i = 0; i < elementCount; i++) {
+                    View proxy = proxies[i];
+                    proxy.setX(AnimationMath.lerp(startX[i], endX[i], fraction));
+                    proxy.setY(AnimationMath.lerp(startY[i], endY[i], fraction));
+
+                    float width = AnimationMath.lerp(startWidth[i], endWidth[i], fraction);
+                    float height = AnimationMath.lerp(startHeight[i], endHeight[i], fraction);
+                    if (useTransform && startWidth[i] > 0 && startHeight[i] > 0) {
+                        proxy.setScaleX(width / startWidth[i]);
+                        proxy.setScaleY(height / startHeight[i]);
+                    } else {
+                        // Nothing lays out overlay views, so the proxy is resized directly
+                        proxy.layout(0, 0, (int) width, (int) height);
+                    }
+                }
+            }
+        });
+
+        animator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                if (runningAnimator == animator) {
+                    runningAnimator = null;
+                }
+                for (int i = 0; i < elementCount; i++) {
+                    proxies[i].setLayerType(View.LAYER_TYPE_NONE, null);
+                    overlay.remove(proxies[i]);
+                    targets[i].setVisibility(View.VISIBLE);
+                    proxies[i] = null;
+                }
+            }
+        });
+
+        AnimationMetrics.track("multiElementTransition", animator);
+        runningAnimator = animator;
+        animator.start();
+    }
+
+    private void captureBounds(int index) {
+        View source = sources[index];
+        ViewBoundsResolver.locate(source, rootView, position, viewLocation, rootLocation);
+        startX[index] = position[0];
+        startY[index] = position[1];
+        startWidth[index] = source.getWidth();
+        startHeight[index] = source.getHeight();
+
+        View target = targets[index];
+        ViewBoundsResolver.locate(target, rootView, position, viewLocation, rootLocation);
+        endX[index] = position[0];
+        endY[index] = position[1];
+        endWidth[index] = target.getWidth();
+        endHeight[index] = target.getHeight();
+    }
+
+    private View createProxy(View source, int index) {
+        View proxy = new View(source.getContext());
+        // Overlay views keep the bounds they are given; x and y below become translation from (0, 0)
+        proxy.layout(0, 0, (int) startWidth[index], (int) startHeight[index]);
+        proxy.setPivotX(0f);
+        proxy.setPivotY(0f);
+        proxy.setX(startX[index]);
+        proxy.setY(startY[index]);
+        proxy.setBackground(source.getBackground());
+        return proxy;
+    }
+
+    // The proxy drawn for pair index while a transition runs, or null
+    View getProxy(int index) {
+        return proxies[index];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= sources.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, sources.length * 2);
+        sources = Arrays.copyOf(sources, newCapacity);
+        targets = Arrays.copyOf(targets, newCapacity);
+        proxies = Arrays.copyOf(proxies, newCapacity);
+        startX = Arrays.copyOf(startX, newCapacity);
+        startY = Arrays.copyOf(startY, newCapacity);
+        startWidth = Arrays.copyOf(startWidth, newCapacity);
+        startHeight = Arrays.copyOf(startHeight, newCapacity);
+        endX = Arrays.copyOf(endX, newCapacity);
+        endY = Arrays.copyOf(endY, newCapacity);
+        endWidth = Arrays.copyOf(endWidth, newCapacity);
+        endHeight = Arrays.copyOf(endHeight, newCapacity);
+    }
+}
@@ -0,0 +1,136 @@
+package com.kilobyte;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.EdgeEffect;
+import androidx.annotation.NonNull;
+import androidx.dynamicanimation.animation.DynamicAnimation;
+import androidx.dynamicanimation.animation.SpringAnimation;
+import androidx.dynamicanimation.animation.SpringForce;
+import androidx.recyclerview.widget.RecyclerView;
+
+// Overscroll for RecyclerView driven by the unconsumed scroll delta RecyclerView already reports to its edge effects.
+// No edge polling per move and no OnTouchListener, so app touch listeners keep working.
+public class OverScrollEdgeEffectFactory extends RecyclerView.EdgeEffectFactory {
+    private final RecyclerView recyclerView;
+    private final SpringAnimation springX;
+    private final SpringAnimation springY;
+
+    public OverScrollEdgeEffectFactory(@NonNull RecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+        this.springX = createSpring(recyclerView, DynamicAnimation.TRANSLATION_X);
+        this.springY = createSpring(recyclerView, DynamicAnimation.TRANSLATION_Y);
+    }
+
+    public static OverScrollEdgeEffectFactory attach(@NonNull RecyclerView recyclerView) {
+        OverScrollEdgeEffectFactory factory = new OverScrollEdgeEffectFactory(recyclerView);
+        // RecyclerView only reports pulls to its edge effects while overscroll is allowed
+        recyclerView.setOverScrollMode(View.OVER_SCROLL_ALWAYS);
+        recyclerView.setEdgeEffectFactory(factory);
+        return factory;
+    }
+
+    @NonNull
+    @Override
+    protected EdgeEffect createEdgeEffect(@NonNull RecyclerView view, int direction) {
+        return new OverScrollEdgeEffect(view.getContext(), direction);
+    }
+
+    private static SpringAnimation createSpring(View view, DynamicAnimation.ViewProperty property) {
+        SpringForce spring = new SpringForce(0f)
+            .setDampingRatio(SpringForce.DAMPING_RATIO_NO_BOUNCY)
+            .setStiffness(SmoothOverScrollHelper.BOUNCE_BACK_STIFFNESS);
+        return new SpringAnimation(view, property).setSpring(spring);
+    }
+
+    private final class OverScrollEdgeEffect extends EdgeEffect {
+        private final boolean vertical;
+        // +1 for the top/left edge (content moves down/right), -1 for bottom/right
+        private final float sign;
+
+        OverScrollEdgeEffect(Context context, int direction) {
+            super(context);
+            vertical = direction == DIRECTION_TOP || direction == DIRECTION_BOTTOM;
+            sign = direction == DIRECTION_TOP || direction == DIRECTION_LEFT ? 1f : -1f;
+        }
+
+        @Override
+        public void onPull(float deltaDistance) {
+            pull(deltaDistance);
+        }
+
+        @Override
+        public void onPull(float deltaDistance, float displacement) {
+            pull(deltaDistance);
+        }
+
+        // API 31+: RecyclerView also uses this to give back distance when the user scrolls away from the edge
+        @Override
+        public float onPullDistance(float deltaDistance, float displacement) {
+            return pull(deltaDistance);
+        }
+
+        @Override
+        public float getDistance() {
+            float size = getSize();
+            return size > 0 ? Math.abs(getTranslation()) / (size * SmoothOverScrollHelper.RESISTANCE_FACTOR) : 0f;
+        }
+
+        @Override
+        public void onRelease() {
+            if (getTranslation() != 0f) {
+                startSpring(0f);
+            }
+        }
+
+        @Override
+        public void onAbsorb(int velocity) {
+            startSpring(sign * velocity * SmoothOverScrollHelper.RESISTANCE_FACTOR);
+        }
+
+        @Override
+        public boolean isFinished() {
+            // Nothing is drawn by this effect, so RecyclerView never needs to keep invalidating for it
+            return true;
+        }
+
+        // Returns the part of deltaDistance that was actually applied
+        private float pull(float deltaDistance) {
+            float size = getSize();
+            if (size <= 0) {
+                return 0f;
+            }
+            (vertical ? springY : springX).cancel();
+
+            float current = getTranslation();
+            float next = AnimationMath.applyResistance(current, sign * deltaDistance * size,
+                SmoothOverScrollHelper.RESISTANCE_FACTOR, SmoothOverScrollHelper.MAX_OVERSCROLL_DISTANCE);
+            // An edge only ever pushes the content away from itself
+            next = sign > 0 ? Math.max(0f, next) : Math.min(0f, next);
+            setTranslation(next);
+            return sign * (next - current) / (size * SmoothOverScrollHelper.RESISTANCE_FACTOR);
+        }
+
+        private void startSpring(float velocity) {
+            SpringAnimation spring = vertical ? springY : springX;
+            spring.setStartVelocity(velocity);
+            spring.start();
+        }
+
+        private float getSize() {
+            return vertical ? recyclerView.getHeight() : recyclerView.getWidth();
+        }
+
+        private float getTranslation() {
+            return vertical ? recyclerView.getTranslationY() : recyclerView.getTranslationX();
+        }
+
+        private void setTranslation(float translation) {
+            if (vertical) {
+                recyclerView.setTranslationY(translation);
+            } else {
+                recyclerView.setTranslationX(translation);
+            }
+        }
+    }
+}
@@ -1,65 +1,344 @@
 package com.kilobyte;
 
-import android.animation.ObjectAnimator;
+import android.animation.ValueAnimator;
+import android.content.Context;
+import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
+import android.widget.ImageView;
+import androidx.annotation.NonNull;
+import androidx.core.view.ViewCompat;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
-import android.animation.ObjectAnimator;
-import android.view.MotionEvent;
-import android.view.View;
-import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
-
-public class OverScrollSwipeRefreshLayout {
+// Overscroll driven by the nested scrolling child: only the delta the child could not consume moves the layout,
+// and a pull at the top is left to the refresh spinner whenever a refresh can start
+public class OverScrollSwipeRefreshLayout extends SwipeRefreshLayout implements ValueAnimator.AnimatorUpdateListener {
 
     // Constants for behavior
     public static final float RESISTANCE_FACTOR = 0.2f;
     public static final long BOUNCE_BACK_DURATION = 300; // in milliseconds
     public static final float MAX_OVERSCROLL_DISTANCE = 300f; // in pixels
 
-    // Variable to track the initial Y position of touch events
-    private static float startY = 0f;
-    private static boolean isOverscrolling = false;
+    private final ValueAnimator bounceBackAnimator;
+    private final TranslationTarget translationTarget = new TranslationTarget(this);
+
+    private boolean overScrollEnabled = true;
+    // True when SwipeRefreshLayout itself accepted the current nested scroll, i.e. the spinner may be pulled
+    private boolean refreshOwnsGesture;
+    private float overscrollOffset;
+    private final int[] parentOffsetInWindow = new int[2];
+
+    public OverScrollSwipeRefreshLayout(@NonNull Context context) {
+        this(context, null);
+    }
+
+    public OverScrollSwipeRefreshLayout(@NonNull Context context, AttributeSet attrs) {
+        super(context, attrs);
+        bounceBackAnimator = ValueAnimator.ofFloat(0f, 0f);
+        bounceBackAnimator.setDuration(BOUNCE_BACK_DURATION);
+        bounceBackAnimator.setInterpolator(InterpolatorRegistry.decelerate());
+        bounceBackAnimator.addUpdateListener(this);
+    }
+
+    public void setOverScrollEnabled(boolean enabled) {
+        overScrollEnabled = enabled;
+        if (!enabled) {
+            bounceBackAnimator.cancel();
+            setOverscrollOffset(0f);
+        }
+    }
+
+    public boolean isOverScrollEnabled() {
+        return overScrollEnabled;
+    }
+
+    // When true (the default) only the scrolling child moves and the spinner stays put
+    public void setTranslateContentOnly(boolean contentOnly) {
+        bounceBackAnimator.cancel();
+        setOverscrollOffset(0f);
+        translationTarget.setContentOnly(contentOnly);
+    }
+
+    // SwipeRefreshLayout 1.1.0 is a v1 nested scrolling parent: children report touch scrolls to it, never flings
+    @Override
+    public boolean onStartNestedScroll(View child, View target, int nestedScrollAxes) {
+        refreshOwnsGesture = super.onStartNestedScroll(child, target, nestedScrollAxes);
+        boolean vertical = (nestedScrollAxes & ViewCompat.SCROLL_AXIS_VERTICAL) != 0;
+        if (overScrollEnabled && vertical) {
+            // A new drag catches the content where the bounce-back left it
+            bounceBackAnimator.cancel();
+            if (overscrollOffset == 0f) {
+                translationTarget.setContent(child);
+            }
+            return true;
+        }
+        return refreshOwnsGesture;
+    }
+
+    @Override
+    public void onNestedPreScroll(View target, int dx, int dy, int[] consumed) {
+        // Scrolling back towards the edge first gives back the overscroll before the child scrolls again
+        int ownConsumed = 0;
+        if (overscrollOffset != 0f && dy != 0 && (dy > 0) == (overscrollOffset > 0f)) {
+            float next = overscrollOffset - dy * RESISTANCE_FACTOR;
+            if ((next > 0f) != (overscrollOffset > 0f)) {
+                ownConsumed = (int) (overscrollOffset / RESISTANCE_FACTOR);
+                next = 0f;
+            } else {
+                ownConsumed = dy;
+            }
+            setOverscrollOffset(next);
+        }
+        if (ownConsumed != 0 && ownConsumed == dy) {
+            consumed[1] = dy;
+            return;
+        }
+        super.onNestedPreScroll(target, dx, dy - ownConsumed, consumed);
+        consumed[1] += ownConsumed;
+    }
+
+    // Only touch scrolls arrive here (see onStartNestedScroll), so flings stop at the edge
+    @Override
+    public void onNestedScroll(View target, int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed) {
+        boolean overscroll = overScrollEnabled && dyUnconsumed != 0;
+        // The top edge belongs to the spinner unless a refresh cannot start (disabled or already refreshing)
+        boolean spinnerPull = dyUnconsumed < 0 && refreshOwnsGesture && overscrollOffset == 0f;
+        if (spinnerPull || (!overscroll && refreshOwnsGesture)) {
+            // SwipeRefreshLayout passes the delta to its own parents before pulling the spinner
+            super.onNestedScroll(target, dxConsumed, dyConsumed, dxUnconsumed, dyUnconsumed);
+            return;
+        }
+
+        // Parents (e.g. a CoordinatorLayout with an AppBarLayout) get the delta first; only what they leave overscrolls.
+        // A v1 parent does not report what it consumed, so as in SwipeRefreshLayout it is read from how far the parent
+        // moved this layout in the window.
+        parentOffsetInWindow[1] = 0;
+        dispatchNestedScroll(dxConsumed, dyConsumed, dxUnconsumed, dyUnconsumed, parentOffsetInWindow);
+        int remaining = dyUnconsumed + parentOffsetInWindow[1];
+        if (!overscroll || remaining == 0 || (remaining > 0) != (dyUnconsumed > 0)) {
+            return;
+        }
+        setOverscrollOffset(AnimationMath.applyResistance(
+                overscrollOffset, -remaining, RESISTANCE_FACTOR, MAX_OVERSCROLL_DISTANCE));
+    }
+
+    @Override
+    public void onStopNestedScroll(View target) {
+        super.onStopNestedScroll(target);
+        if (overscrollOffset != 0f) {
+            bounceBackAnimator.setFloatValues(overscrollOffset, 0f);
+            AnimationMetrics.track("refreshBounceBack", bounceBackAnimator);
+            bounceBackAnimator.start();
+        }
+    }
+
+    @Override
+    public void onAnimationUpdate(ValueAnimator animation) {
+        setOverscrollOffset((float) animation.getAnimatedValue());
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        bounceBackAnimator.cancel();
+        setOverscrollOffset(0f);
+    }
+
+    private void setOverscrollOffset(float offset) {
+        if (offset == overscrollOffset) {
+            return;
+        }
+        overscrollOffset = offset;
+        translationTarget.apply(offset);
+    }
+
+    // The spinner is an ImageView the layout adds itself; the first other child is the scrolling content
+    static View findContentChild(SwipeRefreshLayout layout) {
+        for (int i = 0; i < layout.getChildCount(); i++) {
+            View child = layout.getChildAt(i);
+            if (!(child instanceof ImageView)) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    // Moves either the whole layout or only its content child. The content sits on a hardware layer while it is
+    // displaced, so each drag or bounce-back frame only updates the layer's offset instead of redrawing the subtree.
+    static final class TranslationTarget {
+        private final SwipeRefreshLayout layout;
+        private View content;
+        private boolean contentOnly = true;
+        private boolean layerPromoted;
+        private View translatedView;
+
+        TranslationTarget(SwipeRefreshLayout layout) {
+            this.layout = layout;
+        }
+
+        void setContent(View view) {
+            if (view == content) {
+                return;
+            }
+            reset();
+            content = view;
+        }
+
+        void setContentOnly(boolean enabled) {
+            if (enabled == contentOnly) {
+                return;
+            }
+            reset();
+            contentOnly = enabled;
+        }
+
+        void apply(float offset) {
+            View view = contentOnly && content != null ? content : layout;
+            if (view != translatedView) {
+                reset();
+                translatedView = view;
+            }
+            if (offset != 0f && view == content && !layerPromoted
+                    && content.getLayerType() == View.LAYER_TYPE_NONE) {
+                content.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+                layerPromoted = true;
+            }
+            view.setTranslationY(offset);
+            if (offset == 0f) {
+                releaseLayer();
+            }
+        }
+
+        float getOffset() {
+            return translatedView != null ? translatedView.getTranslationY() : 0f;
+        }
+
+        void reset() {
+            if (translatedView != null) {
+                translatedView.setTranslationY(0f);
+                translatedView = null;
+            }
+            releaseLayer();
+        }
+
+        private void releaseLayer() {
+            if (layerPromoted) {
+                layerPromoted = false;
+                content.setLayerType(View.LAYER_TYPE_NONE, null);
+            }
+        }
+    }
 
-    // Method to enable over-scroll effect on a SwipeRefreshLayout
+    // Touch-listener based over-scroll for a plain SwipeRefreshLayout; prefer using this class as the layout itself
     public static void enableOverScroll(SwipeRefreshLayout swipeRefreshLayout) {
+        if (getOverScrollController(swipeRefreshLayout) != null) {
+            return;
+        }
+        swipeRefreshLayout.setTag(R.id.animation_pro_overscroll_controller, new OverScrollController(swipeRefreshLayout));
+    }
+
+    // The controller enableOverScroll installed, or null if over-scroll is not enabled on this layout
+    public static OverScrollController getOverScrollController(SwipeRefreshLayout swipeRefreshLayout) {
+        Object tag = swipeRefreshLayout.getTag(R.id.animation_pro_overscroll_controller);
+        return tag instanceof OverScrollController ? (OverScrollController) tag : null;
+    }
+
+    public static void disableOverScroll(SwipeRefreshLayout swipeRefreshLayout) {
+        Object tag = swipeRefreshLayout.getTag(R.id.animation_pro_overscroll_controller);
+        if (tag instanceof OverScrollController) {
+            ((OverScrollController) tag).release();
+        }
+    }
+
+    // Per-layout state, so several refresh layouts on screen (e.g. ViewPager tabs) never share a gesture
+    public static final class OverScrollController
+            implements View.OnTouchListener, View.OnAttachStateChangeListener, ValueAnimator.AnimatorUpdateListener {
+        private final SwipeRefreshLayout swipeRefreshLayout;
+        private final ValueAnimator bounceBackAnimator;
+        private final TranslationTarget translationTarget;
+
+        // Variable to track the initial Y position of touch events
+        private float startY = 0f;
+        private boolean isOverscrolling = false;
+
+        OverScrollController(SwipeRefreshLayout swipeRefreshLayout) {
+            this.swipeRefreshLayout = swipeRefreshLayout;
+            this.translationTarget = new TranslationTarget(swipeRefreshLayout);
+            this.bounceBackAnimator = ValueAnimator.ofFloat(0f, 0f);
+            this.bounceBackAnimator.setDuration(BOUNCE_BACK_DURATION);
+            this.bounceBackAnimator.addUpdateListener(this);
+
+            swipeRefreshLayout.setOnTouchListener(this);
+            swipeRefreshLayout.addOnAttachStateChangeListener(this);
+        }
 
-        swipeRefreshLayout.setOnTouchListener(new View.OnTouchListener() {
+        @Override
+        public boolean onTouch(View v, MotionEvent event) {
+            switch (event.getActionMasked()) {
+                case MotionEvent.ACTION_DOWN:
+                    // Store the initial Y position when touch begins
+                    bounceBackAnimator.cancel();
+                    translationTarget.setContent(findContentChild(swipeRefreshLayout));
+                    startY = event.getY();
+                    isOverscrolling = false;
+                    break;
 
-            @Override
-            public boolean onTouch(View v, MotionEvent event) {
-                switch (event.getAction()) {
-                    case MotionEvent.ACTION_DOWN:
-                        // Store the initial Y position when touch begins
-                        startY = event.getY();
+                case MotionEvent.ACTION_MOVE:
+                    float offsetY = AnimationMath.pullOffset(
+                            startY, event.getY(), RESISTANCE_FACTOR, MAX_OVERSCROLL_DISTANCE);
+
+                    // Check if user is pulling down and over-scrolling
+                    if (offsetY > 0 && !swipeRefreshLayout.isRefreshing() && !swipeRefreshLayout.canChildScrollUp()) {
+                        isOverscrolling = true;
+                        translationTarget.apply(offsetY);
+                    }
+                    break;
+
+                case MotionEvent.ACTION_UP:
+                case MotionEvent.ACTION_CANCEL:
+                    if (isOverscrolling) {
+                        // Animate the swipeRefreshLayout back to its original position
+                        bounceBackAnimator.setFloatValues(translationTarget.getOffset(), 0f);
+                        AnimationMetrics.track("refreshBounceBack", bounceBackAnimator);
+                        bounceBackAnimator.start();
                         isOverscrolling = false;
-                        break;
-
-                    case MotionEvent.ACTION_MOVE:
-                        float offsetY = (event.getY() - startY) * RESISTANCE_FACTOR;
-
-                        // Check if user is pulling down and over-scrolling
-                        if (offsetY > 0 && !swipeRefreshLayout.isRefreshing()) {
-                            isOverscrolling = true;
-                            float overScrollDistance = Math.min(offsetY, MAX_OVERSCROLL_DISTANCE);
-                            swipeRefreshLayout.setTranslationY(overScrollDistance);
-                        }
-                        break;
-
-                    case MotionEvent.ACTION_UP:
-                    case MotionEvent.ACTION_CANCEL:
-                        if (isOverscrolling) {
-                            // Animate the swipeRefreshLayout back to its original position
-                            ObjectAnimator animator = ObjectAnimator.ofFloat(
-                                    swipeRefreshLayout, "translationY", swipeRefreshLayout.getTranslationY(), 0);
-                            animator.setDuration(BOUNCE_BACK_DURATION);
-                            animator.start();
-                            isOverscrolling = false;
-                        }
-                        break;
-                }
-                return false;
+                    }
+                    break;
             }
-        });
+            return false;
+        }
+
+        // When true (the default) only the scrolling child moves and the spinner stays put
+        public void setTranslateContentOnly(boolean contentOnly) {
+            translationTarget.setContentOnly(contentOnly);
+        }
+
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            translationTarget.apply((float) animation.getAnimatedValue());
+        }
+
+        @Override
+        public void onViewAttachedToWindow(View v) {
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(View v) {
+            // A page scrolled away mid-gesture must not come back half translated
+            reset();
+        }
+
+        private void reset() {
+            bounceBackAnimator.cancel();
+            isOverscrolling = false;
+            translationTarget.reset();
+        }
+
+        void release() {
+            reset();
+            swipeRefreshLayout.setOnTouchListener(null);
+            swipeRefreshLayout.removeOnAttachStateChangeListener(this);
+            swipeRefreshLayout.setTag(R.id.animation_pro_overscroll_controller, null);
+        }
     }
-}
\ No newline at end of file
+}
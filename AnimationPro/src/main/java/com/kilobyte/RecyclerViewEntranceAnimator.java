@@ -0,0 +1,161 @@
+package com.kilobyte;
+
+import android.animation.TimeInterpolator;
+import android.view.View;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+// The translate-and-fade stagger of SmoothAnimationCreator for RecyclerView rows, started as rows are attached.
+// Each adapter position animates at most once per data set, and a row detached for recycling is snapped to its
+// final state so a recycled holder never carries a running animation into its next bind.
+public class RecyclerViewEntranceAnimator implements RecyclerView.OnChildAttachStateChangeListener, Runnable {
+    private final RecyclerView recyclerView;
+    private final RecyclerView.AdapterDataObserver dataObserver = new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            // A new data set gets its own entrance
+            reset();
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            if (firstAnimatedPosition == RecyclerView.NO_POSITION || positionStart > lastAnimatedPosition + 1) {
+                return;
+            }
+            int end = positionStart + itemCount;
+            if (end < firstAnimatedPosition) {
+                // Not touching the range: it only moves down
+                firstAnimatedPosition += itemCount;
+                lastAnimatedPosition += itemCount;
+                return;
+            }
+            // Rows inserted inside or next to the range join it, so their add animation is left to the ItemAnimator
+            firstAnimatedPosition = Math.min(firstAnimatedPosition, positionStart);
+            lastAnimatedPosition += itemCount;
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            if (firstAnimatedPosition == RecyclerView.NO_POSITION) {
+                return;
+            }
+            int end = positionStart + itemCount;
+            int before = Math.max(0, Math.min(end, firstAnimatedPosition) - positionStart);
+            int inside = Math.max(0, Math.min(end, lastAnimatedPosition + 1) - Math.max(positionStart, firstAnimatedPosition));
+            firstAnimatedPosition -= before;
+            lastAnimatedPosition -= before + inside;
+            if (lastAnimatedPosition < firstAnimatedPosition) {
+                firstAnimatedPosition = RecyclerView.NO_POSITION;
+                lastAnimatedPosition = RecyclerView.NO_POSITION;
+            }
+        }
+
+        // A move is a removal followed by an insertion; a row moved out of or along the range keeps it contiguous
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            onItemRangeRemoved(fromPosition, itemCount);
+            onItemRangeInserted(toPosition, itemCount);
+        }
+    };
+
+    private RecyclerView.Adapter<?> observedAdapter;
+    // Positions already animated form one range: a screen fill is contiguous and scrolling only extends it
+    private int firstAnimatedPosition = RecyclerView.NO_POSITION;
+    private int lastAnimatedPosition = RecyclerView.NO_POSITION;
+    // Rows attached in the same layout pass stagger among themselves
+    private int staggerSlot;
+    private boolean slotResetPosted;
+
+    private RecyclerViewEntranceAnimator(RecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+    }
+
+    public static RecyclerViewEntranceAnimator attach(@NonNull RecyclerView recyclerView) {
+        Object tag = recyclerView.getTag(R.id.animation_pro_entrance_animator);
+        if (tag instanceof RecyclerViewEntranceAnimator) {
+            return (RecyclerViewEntranceAnimator) tag;
+        }
+        RecyclerViewEntranceAnimator animator = new RecyclerViewEntranceAnimator(recyclerView);
+        recyclerView.setTag(R.id.animation_pro_entrance_animator, animator);
+        recyclerView.addOnChildAttachStateChangeListener(animator);
+        return animator;
+    }
+
+    public void detach() {
+        recyclerView.removeOnChildAttachStateChangeListener(this);
+        recyclerView.removeCallbacks(this);
+        slotResetPosted = false;
+        observeAdapter(null);
+        FrameAnimationEngine engine = FrameAnimationEngine.getInstance();
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            finish(engine, recyclerView.getChildAt(i));
+        }
+        recyclerView.setTag(R.id.animation_pro_entrance_animator, null);
+    }
+
+    // Lets the rows that are attached next animate again, e.g. when the screen is shown a second time
+    public void reset() {
+        firstAnimatedPosition = RecyclerView.NO_POSITION;
+        lastAnimatedPosition = RecyclerView.NO_POSITION;
+    }
+
+    @Override
+    public void onChildViewAttachedToWindow(@NonNull View view) {
+        observeAdapter(recyclerView.getAdapter());
+        int position = recyclerView.getChildAdapterPosition(view);
+        if (position == RecyclerView.NO_POSITION) {
+            return;
+        }
+        if (firstAnimatedPosition == RecyclerView.NO_POSITION) {
+            firstAnimatedPosition = position;
+            lastAnimatedPosition = position;
+        } else if (position < firstAnimatedPosition) {
+            firstAnimatedPosition = position;
+        } else if (position > lastAnimatedPosition) {
+            lastAnimatedPosition = position;
+        } else {
+            return;
+        }
+
+        TimeInterpolator interpolator = InterpolatorRegistry.springTable();
+        FrameAnimationEngine.getInstance().animate(view,
+            staggerSlot++ * AnimationManager.ANIMATION_STAGGER_DELAY, AnimationManager.ANIMATION_BASE_DURATION,
+            100f, 0f, 0f, 1f, interpolator, null);
+        if (!slotResetPosted) {
+            slotResetPosted = true;
+            recyclerView.post(this);
+        }
+    }
+
+    @Override
+    public void onChildViewDetachedFromWindow(@NonNull View view) {
+        finish(FrameAnimationEngine.getInstance(), view);
+    }
+
+    // Runs after the layout pass that attached the rows, so the next batch starts its stagger from zero
+    @Override
+    public void run() {
+        slotResetPosted = false;
+        staggerSlot = 0;
+    }
+
+    private void observeAdapter(RecyclerView.Adapter<?> adapter) {
+        if (adapter == observedAdapter) {
+            return;
+        }
+        if (observedAdapter != null) {
+            observedAdapter.unregisterAdapterDataObserver(dataObserver);
+        }
+        observedAdapter = adapter;
+        if (adapter != null) {
+            adapter.registerAdapterDataObserver(dataObserver);
+        }
+        reset();
+    }
+
+    private static void finish(FrameAnimationEngine engine, View view) {
+        engine.cancel(view);
+        view.setTranslationY(0f);
+        view.setAlpha(1f);
+    }
+}
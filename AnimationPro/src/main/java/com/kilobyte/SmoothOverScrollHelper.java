@@ -3,35 +3,175 @@ package com.kilobyte;
 import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
 import android.animation.ValueAnimator;
+import android.database.DataSetObserver;
+import android.view.Choreographer;
 import android.view.MotionEvent;
+import android.view.VelocityTracker;
 import android.view.View;
 import android.view.ViewGroup;
-import android.view.animation.DecelerateInterpolator;
+import android.view.ViewTreeObserver;
+import android.widget.Adapter;
 import android.widget.GridView;
 import android.widget.HorizontalScrollView;
 import android.widget.ScrollView;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.core.widget.NestedScrollView;
+import androidx.dynamicanimation.animation.DynamicAnimation;
+import androidx.dynamicanimation.animation.FloatPropertyCompat;
+import androidx.dynamicanimation.animation.SpringAnimation;
+import androidx.dynamicanimation.animation.SpringForce;
 
 public class SmoothOverScrollHelper {
     public static final float RESISTANCE_FACTOR = 0.3f;
     public static final long BOUNCE_BACK_DURATION = 300;
     public static final float MAX_OVERSCROLL_DISTANCE = 500f;
+    public static final float BOUNCE_BACK_STIFFNESS = SpringForce.STIFFNESS_MEDIUM;
+
+    private static final FloatPropertyCompat<SmoothOverScrollHelper> OVERSCROLL_X =
+        new FloatPropertyCompat<SmoothOverScrollHelper>("overscrollX") {
+            @Override
+            public float getValue(SmoothOverScrollHelper helper) {
+                return helper.overscrollDistanceX;
+            }
+
+            @Override
+            public void setValue(SmoothOverScrollHelper helper, float value) {
+                helper.overscrollDistanceX = value;
+                helper.applyTranslation(helper.overscrollDistanceX, helper.overscrollDistanceY);
+            }
+        };
+
+    private static final FloatPropertyCompat<SmoothOverScrollHelper> OVERSCROLL_Y =
+        new FloatPropertyCompat<SmoothOverScrollHelper>("overscrollY") {
+            @Override
+            public float getValue(SmoothOverScrollHelper helper) {
+                return helper.overscrollDistanceY;
+            }
+
+            @Override
+            public void setValue(SmoothOverScrollHelper helper, float value) {
+                helper.overscrollDistanceY = value;
+                helper.applyTranslation(helper.overscrollDistanceX, helper.overscrollDistanceY);
+            }
+        };
 
     private View targetView;
     private float lastTouchX, lastTouchY;
+    private int activePointerId = MotionEvent.INVALID_POINTER_ID;
     private float overscrollDistanceX, overscrollDistanceY;
     private boolean isOverscrollingHorizontal, isOverscrollingVertical;
     private ValueAnimator bounceBackAnimatorX, bounceBackAnimatorY;
     private boolean isHorizontalScrollEnabled;
     private boolean isVerticalScrollEnabled;
 
+    // Velocity-driven bounce-back: one critically damped spring per axis, reused for every gesture
+    private boolean physicsBounceBackEnabled = true;
+    private VelocityTracker velocityTracker;
+    private SpringAnimation bounceBackSpringX, bounceBackSpringY;
+
+    // Optional: resample the drag to the display frame. Each touch sample's overscroll is kept with its event time,
+    // and a frame shows the overscroll at (frame time - latency), interpolated between the samples around that time,
+    // the way the framework resamples input. The latency keeps a real sample on each side on high-rate panels.
+    private static final long RESAMPLE_LATENCY_NANOS = 5_000_000L;
+    private static final int RESAMPLE_HISTORY = 4;
+    private boolean vsyncAlignedTranslation;
+    private boolean translationFramePending;
+    private final long[] sampleTimes = new long[RESAMPLE_HISTORY];
+    private final float[] sampleDistanceX = new float[RESAMPLE_HISTORY];
+    private final float[] sampleDistanceY = new float[RESAMPLE_HISTORY];
+    private int sampleCount;
+    private final Choreographer.FrameCallback translationFrameCallback = frameTimeNanos -> {
+        translationFramePending = false;
+        applyResampledTranslation(frameTimeNanos - RESAMPLE_LATENCY_NANOS);
+    };
+
+    // Edge state cache: recomputed only after the view scrolls, lays out or its data changes,
+    // so a touch event normally costs a field read instead of several canScroll queries
+    private boolean edgeStateDirty = true;
+    private boolean cachedCanScrollHorizontally, cachedCanScrollVertically;
+    private boolean cachedAtLeft, cachedAtRight, cachedAtTop, cachedAtBottom;
+    private RecyclerView.Adapter<?> observedRecyclerAdapter;
+    private RecyclerView.LayoutManager observedLayoutManager;
+    private Adapter observedGridAdapter;
+    private boolean edgeStateObserversRegistered;
+
+    private final ViewTreeObserver.OnScrollChangedListener scrollChangedListener = this::invalidateEdgeState;
+    private final View.OnLayoutChangeListener layoutChangeListener =
+        (v, left, top, right, bottom, oldLeft, oldTop, oldRight, oldBottom) -> invalidateEdgeState();
+
+    private final RecyclerView.OnScrollListener recyclerScrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+            invalidateEdgeState();
+        }
+    };
+
+    private final RecyclerView.AdapterDataObserver recyclerDataObserver = new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            onDataChanged();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            onDataChanged();
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            onDataChanged();
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            onDataChanged();
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            onDataChanged();
+        }
+    };
+
+    private final DataSetObserver gridDataObserver = new DataSetObserver() {
+        @Override
+        public void onChanged() {
+            onDataChanged();
+        }
+
+        @Override
+        public void onInvalidated() {
+            onDataChanged();
+        }
+    };
+
+    // The observers hold this helper from the window's tree observer and the adapters, which can outlive the view;
+    // they are dropped when the view leaves the window and put back if it returns
+    private final View.OnAttachStateChangeListener attachStateListener = new View.OnAttachStateChangeListener() {
+        @Override
+        public void onViewAttachedToWindow(View v) {
+            setupEdgeStateObservers();
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(View v) {
+            teardownEdgeStateObservers();
+        }
+    };
+
     public SmoothOverScrollHelper(View view) {
         this.targetView = view;
+        setupEdgeStateObservers();
+        targetView.addOnAttachStateChangeListener(attachStateListener);
         determineScrollOrientation();
         setupOverscroll();
     }
 
+    // Touch-listener-free alternative for RecyclerView, fed by the unconsumed scroll RecyclerView reports
+    public static OverScrollEdgeEffectFactory attachToRecyclerView(RecyclerView recyclerView) {
+        return OverScrollEdgeEffectFactory.attach(recyclerView);
+    }
+
     private void determineScrollOrientation() {
         if (targetView instanceof HorizontalScrollView) {
             isHorizontalScrollEnabled = true;
@@ -41,10 +181,17 @@ public class SmoothOverScrollHelper {
             isVerticalScrollEnabled = true;
         } else if (targetView instanceof RecyclerView) {
             RecyclerView recyclerView = (RecyclerView) targetView;
-            isHorizontalScrollEnabled = recyclerView.canScrollHorizontally(1) || 
-                                      recyclerView.canScrollHorizontally(-1);
-            isVerticalScrollEnabled = recyclerView.canScrollVertically(1) || 
-                                    recyclerView.canScrollVertically(-1);
+            RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+            if (layoutManager != null) {
+                // The layout manager knows its orientation even before the adapter has items
+                isHorizontalScrollEnabled = layoutManager.canScrollHorizontally();
+                isVerticalScrollEnabled = layoutManager.canScrollVertically();
+            } else {
+                isHorizontalScrollEnabled = recyclerView.canScrollHorizontally(1) || 
+                                          recyclerView.canScrollHorizontally(-1);
+                isVerticalScrollEnabled = recyclerView.canScrollVertically(1) || 
+                                        recyclerView.canScrollVertically(-1);
+            }
         } else if (targetView instanceof GridView) {
             GridView gridView = (GridView) targetView;
             isHorizontalScrollEnabled = gridView.getNumColumns() > 1;
@@ -58,20 +205,140 @@ public class SmoothOverScrollHelper {
         }
     }
 
+    private void setupEdgeStateObservers() {
+        if (edgeStateObserversRegistered) {
+            return;
+        }
+        edgeStateObserversRegistered = true;
+        targetView.getViewTreeObserver().addOnScrollChangedListener(scrollChangedListener);
+        targetView.addOnLayoutChangeListener(layoutChangeListener);
+        if (targetView instanceof RecyclerView) {
+            ((RecyclerView) targetView).addOnScrollListener(recyclerScrollListener);
+        }
+        syncObservedSources();
+        // Scrolls and data changes while unobserved were missed
+        invalidateEdgeState();
+    }
+
+    private void teardownEdgeStateObservers() {
+        if (!edgeStateObserversRegistered) {
+            return;
+        }
+        edgeStateObserversRegistered = false;
+        ViewTreeObserver observer = targetView.getViewTreeObserver();
+        if (observer.isAlive()) {
+            observer.removeOnScrollChangedListener(scrollChangedListener);
+        }
+        targetView.removeOnLayoutChangeListener(layoutChangeListener);
+        if (targetView instanceof RecyclerView) {
+            ((RecyclerView) targetView).removeOnScrollListener(recyclerScrollListener);
+        }
+        if (observedRecyclerAdapter != null) {
+            observedRecyclerAdapter.unregisterAdapterDataObserver(recyclerDataObserver);
+            observedRecyclerAdapter = null;
+        }
+        if (observedGridAdapter != null) {
+            observedGridAdapter.unregisterDataSetObserver(gridDataObserver);
+            observedGridAdapter = null;
+        }
+        observedLayoutManager = null;
+        if (translationFramePending) {
+            translationFramePending = false;
+            AnimationClock.getInstance().removeFrameCallback(translationFrameCallback);
+            applyTranslation(overscrollDistanceX, overscrollDistanceY);
+        }
+    }
+
+    // Adapters and layout managers can be swapped at any time; checked once per gesture
+    private void syncObservedSources() {
+        if (!edgeStateObserversRegistered) {
+            return;
+        }
+        if (targetView instanceof RecyclerView) {
+            RecyclerView recyclerView = (RecyclerView) targetView;
+            RecyclerView.Adapter<?> adapter = recyclerView.getAdapter();
+            RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+            if (adapter != observedRecyclerAdapter) {
+                if (observedRecyclerAdapter != null) {
+                    observedRecyclerAdapter.unregisterAdapterDataObserver(recyclerDataObserver);
+                }
+                observedRecyclerAdapter = adapter;
+                if (adapter != null) {
+                    adapter.registerAdapterDataObserver(recyclerDataObserver);
+                }
+                onDataChanged();
+            }
+            if (layoutManager != observedLayoutManager) {
+                observedLayoutManager = layoutManager;
+                onDataChanged();
+            }
+        } else if (targetView instanceof GridView) {
+            Adapter adapter = ((GridView) targetView).getAdapter();
+            if (adapter != observedGridAdapter) {
+                if (observedGridAdapter != null) {
+                    observedGridAdapter.unregisterDataSetObserver(gridDataObserver);
+                }
+                observedGridAdapter = adapter;
+                if (adapter != null) {
+                    adapter.registerDataSetObserver(gridDataObserver);
+                }
+                onDataChanged();
+            }
+        }
+    }
+
+    private void onDataChanged() {
+        determineScrollOrientation();
+        invalidateEdgeState();
+    }
+
+    private void invalidateEdgeState() {
+        edgeStateDirty = true;
+    }
+
+    private void refreshEdgeState() {
+        if (!edgeStateDirty) {
+            return;
+        }
+        edgeStateDirty = false;
+        cachedCanScrollHorizontally = computeCanScrollHorizontally();
+        cachedCanScrollVertically = computeCanScrollVertically();
+        cachedAtLeft = computeIsAtLeft();
+        cachedAtRight = computeIsAtRight();
+        cachedAtTop = computeIsAtTop();
+        cachedAtBottom = computeIsAtBottom();
+    }
+
     private void setupOverscroll() {
         targetView.setOverScrollMode(View.OVER_SCROLL_NEVER);
         
         targetView.setOnTouchListener((v, event) -> {
-            switch (event.getAction()) {
+            switch (event.getActionMasked()) {
                 case MotionEvent.ACTION_DOWN:
                     handleTouchDown(event);
+                    trackVelocity(event);
+                    break;
+                    
+                case MotionEvent.ACTION_POINTER_DOWN:
+                    trackVelocity(event);
+                    // The newest finger takes over, like the framework scroll views
+                    setActivePointer(event, event.getActionIndex());
+                    break;
+                    
+                case MotionEvent.ACTION_POINTER_UP:
+                    trackVelocity(event);
+                    if (event.getPointerId(event.getActionIndex()) == activePointerId) {
+                        setActivePointer(event, event.getActionIndex() == 0 ? 1 : 0);
+                    }
                     break;
                     
                 case MotionEvent.ACTION_MOVE:
+                    trackVelocity(event);
                     return handleTouchMove(event);
                     
                 case MotionEvent.ACTION_UP:
                 case MotionEvent.ACTION_CANCEL:
+                    trackVelocity(event);
                     handleTouchUp();
                     break;
             }
@@ -79,17 +346,80 @@ public class SmoothOverScrollHelper {
         });
     }
 
+    public void setVsyncAlignedTranslation(boolean enabled) {
+        this.vsyncAlignedTranslation = enabled;
+    }
+
+    private void setActivePointer(MotionEvent event, int pointerIndex) {
+        activePointerId = event.getPointerId(pointerIndex);
+        lastTouchX = getScreenX(event, pointerIndex);
+        lastTouchY = getScreenY(event, pointerIndex);
+    }
+
+    // Screen-space position of any pointer; the view itself translates while overscrolling,
+    // and all samples of one event share the same local-to-screen offset
+    private static float getScreenX(MotionEvent event, int pointerIndex) {
+        return event.getX(pointerIndex) + event.getRawX() - event.getX();
+    }
+
+    private static float getScreenY(MotionEvent event, int pointerIndex) {
+        return event.getY(pointerIndex) + event.getRawY() - event.getY();
+    }
+
     private void handleTouchDown(MotionEvent event) {
         cancelBounceBackAnimations();
-        lastTouchX = event.getRawX();
-        lastTouchY = event.getRawY();
-        isOverscrollingHorizontal = false;
-        isOverscrollingVertical = false;
+        syncObservedSources();
+        setActivePointer(event, 0);
+        // A spring caught mid-flight keeps its distance, so the new gesture continues from there
+        isOverscrollingHorizontal = overscrollDistanceX != 0;
+        isOverscrollingVertical = overscrollDistanceY != 0;
+        if (velocityTracker != null) {
+            velocityTracker.clear();
+        }
+        sampleCount = 0;
+        recordSample(event.getEventTime());
     }
 
     private boolean handleTouchMove(MotionEvent event) {
-        float currentX = event.getRawX();
-        float currentY = event.getRawY();
+        int pointerIndex = event.findPointerIndex(activePointerId);
+        if (pointerIndex < 0) {
+            return false;
+        }
+        float offsetX = event.getRawX() - event.getX();
+        float offsetY = event.getRawY() - event.getY();
+
+        // High-rate panels batch several samples into one MOVE; consume every one of them in order
+        boolean handled = false;
+        int historySize = event.getHistorySize();
+        for (int h = 0; h < historySize; h++) {
+            handled |= handleTouchSample(
+                event.getHistoricalX(pointerIndex, h) + offsetX,
+                event.getHistoricalY(pointerIndex, h) + offsetY);
+            recordSample(event.getHistoricalEventTime(h));
+        }
+        handled |= handleTouchSample(event.getX(pointerIndex) + offsetX, event.getY(pointerIndex) + offsetY);
+        recordSample(event.getEventTime());
+        return handled;
+    }
+
+    // Event times are uptime milliseconds, the same monotonic clock as frame times
+    private void recordSample(long eventTimeMillis) {
+        if (!vsyncAlignedTranslation) {
+            return;
+        }
+        if (sampleCount == RESAMPLE_HISTORY) {
+            System.arraycopy(sampleTimes, 1, sampleTimes, 0, RESAMPLE_HISTORY - 1);
+            System.arraycopy(sampleDistanceX, 1, sampleDistanceX, 0, RESAMPLE_HISTORY - 1);
+            System.arraycopy(sampleDistanceY, 1, sampleDistanceY, 0, RESAMPLE_HISTORY - 1);
+            sampleCount--;
+        }
+        sampleTimes[sampleCount] = eventTimeMillis * 1_000_000L;
+        sampleDistanceX[sampleCount] = overscrollDistanceX;
+        sampleDistanceY[sampleCount] = overscrollDistanceY;
+        sampleCount++;
+    }
+
+    private boolean handleTouchSample(float currentX, float currentY) {
         float deltaX = currentX - lastTouchX;
         float deltaY = currentY - lastTouchY;
         lastTouchX = currentX;
@@ -127,28 +457,109 @@ public class SmoothOverScrollHelper {
     }
 
     private void handleTouchUp() {
-        if (isOverscrollingHorizontal) {
-            startHorizontalBounceBackAnimation();
+        if (translationFramePending) {
+            translationFramePending = false;
+            AnimationClock.getInstance().removeFrameCallback(translationFrameCallback);
+            applyTranslation(overscrollDistanceX, overscrollDistanceY);
+        }
+        if (physicsBounceBackEnabled) {
+            float velocityX = 0f;
+            float velocityY = 0f;
+            if (velocityTracker != null) {
+                velocityTracker.computeCurrentVelocity(1000);
+                // The overscroll moves at the resisted rate, so the release velocity is resisted too
+                velocityX = velocityTracker.getXVelocity(activePointerId) * RESISTANCE_FACTOR;
+                velocityY = velocityTracker.getYVelocity(activePointerId) * RESISTANCE_FACTOR;
+            }
+            if (isOverscrollingHorizontal) {
+                startHorizontalBounceBackSpring(velocityX);
+            }
+            if (isOverscrollingVertical) {
+                startVerticalBounceBackSpring(velocityY);
+            }
+        } else {
+            if (isOverscrollingHorizontal) {
+                startHorizontalBounceBackAnimation();
+            }
+            if (isOverscrollingVertical) {
+                startVerticalBounceBackAnimation();
+            }
         }
-        if (isOverscrollingVertical) {
-            startVerticalBounceBackAnimation();
+        if (velocityTracker != null) {
+            velocityTracker.recycle();
+            velocityTracker = null;
         }
     }
 
+    // Falls back to the fixed-duration decelerating bounce-back when disabled
+    public void setPhysicsBounceBackEnabled(boolean enabled) {
+        this.physicsBounceBackEnabled = enabled;
+    }
+
+    private void trackVelocity(MotionEvent event) {
+        if (!physicsBounceBackEnabled) {
+            return;
+        }
+        if (velocityTracker == null) {
+            velocityTracker = VelocityTracker.obtain();
+        }
+        // The view itself is translated while overscrolling, so track in screen space
+        float offsetX = event.getRawX() - event.getX();
+        float offsetY = event.getRawY() - event.getY();
+        event.offsetLocation(offsetX, offsetY);
+        velocityTracker.addMovement(event);
+        event.offsetLocation(-offsetX, -offsetY);
+    }
+
+    private void startHorizontalBounceBackSpring(float velocity) {
+        if (bounceBackSpringX == null) {
+            bounceBackSpringX = createBounceBackSpring(OVERSCROLL_X);
+            bounceBackSpringX.addEndListener((animation, canceled, value, endVelocity) -> {
+                if (!canceled) {
+                    isOverscrollingHorizontal = false;
+                    overscrollDistanceX = 0;
+                }
+            });
+        }
+        bounceBackSpringX.setStartVelocity(velocity);
+        AnimationMetrics.track("overscrollBounceX", bounceBackSpringX);
+        bounceBackSpringX.start();
+    }
+
+    private void startVerticalBounceBackSpring(float velocity) {
+        if (bounceBackSpringY == null) {
+            bounceBackSpringY = createBounceBackSpring(OVERSCROLL_Y);
+            bounceBackSpringY.addEndListener((animation, canceled, value, endVelocity) -> {
+                if (!canceled) {
+                    isOverscrollingVertical = false;
+                    overscrollDistanceY = 0;
+                }
+            });
+        }
+        bounceBackSpringY.setStartVelocity(velocity);
+        AnimationMetrics.track("overscrollBounceY", bounceBackSpringY);
+        bounceBackSpringY.start();
+    }
+
+    private SpringAnimation createBounceBackSpring(FloatPropertyCompat<SmoothOverScrollHelper> property) {
+        SpringForce spring = new SpringForce(0f)
+            .setDampingRatio(SpringForce.DAMPING_RATIO_NO_BOUNCY)
+            .setStiffness(BOUNCE_BACK_STIFFNESS);
+        SpringAnimation animation = new SpringAnimation(this, property).setSpring(spring);
+        animation.setMinimumVisibleChange(DynamicAnimation.MIN_VISIBLE_CHANGE_PIXELS);
+        return animation;
+    }
+
     private void applyHorizontalOverscroll(float deltaX) {
-        float resistedDelta = deltaX * RESISTANCE_FACTOR;
-        overscrollDistanceX += resistedDelta;
-        overscrollDistanceX = Math.max(-MAX_OVERSCROLL_DISTANCE, 
-            Math.min(MAX_OVERSCROLL_DISTANCE, overscrollDistanceX));
-        applyTranslation(overscrollDistanceX, overscrollDistanceY);
+        overscrollDistanceX = AnimationMath.applyResistance(
+            overscrollDistanceX, deltaX, RESISTANCE_FACTOR, MAX_OVERSCROLL_DISTANCE);
+        applyDragTranslation();
     }
 
     private void applyVerticalOverscroll(float deltaY) {
-        float resistedDelta = deltaY * RESISTANCE_FACTOR;
-        overscrollDistanceY += resistedDelta;
-        overscrollDistanceY = Math.max(-MAX_OVERSCROLL_DISTANCE, 
-            Math.min(MAX_OVERSCROLL_DISTANCE, overscrollDistanceY));
-        applyTranslation(overscrollDistanceX, overscrollDistanceY);
+        overscrollDistanceY = AnimationMath.applyResistance(
+            overscrollDistanceY, deltaY, RESISTANCE_FACTOR, MAX_OVERSCROLL_DISTANCE);
+        applyDragTranslation();
     }
 
     private void startHorizontalBounceBackAnimation() {
@@ -158,7 +569,7 @@ public class SmoothOverScrollHelper {
 
         bounceBackAnimatorX = ValueAnimator.ofFloat(overscrollDistanceX, 0);
         bounceBackAnimatorX.setDuration(BOUNCE_BACK_DURATION);
-        bounceBackAnimatorX.setInterpolator(new DecelerateInterpolator(1.5f));
+        bounceBackAnimatorX.setInterpolator(InterpolatorRegistry.decelerate());
         
         bounceBackAnimatorX.addUpdateListener(animation -> {
             overscrollDistanceX = (float) animation.getAnimatedValue();
@@ -183,7 +594,7 @@ public class SmoothOverScrollHelper {
 
         bounceBackAnimatorY = ValueAnimator.ofFloat(overscrollDistanceY, 0);
         bounceBackAnimatorY.setDuration(BOUNCE_BACK_DURATION);
-        bounceBackAnimatorY.setInterpolator(new DecelerateInterpolator(1.5f));
+        bounceBackAnimatorY.setInterpolator(InterpolatorRegistry.decelerate());
         
         bounceBackAnimatorY.addUpdateListener(animation -> {
             overscrollDistanceY = (float) animation.getAnimatedValue();
@@ -208,6 +619,48 @@ public class SmoothOverScrollHelper {
         if (bounceBackAnimatorY != null && bounceBackAnimatorY.isRunning()) {
             bounceBackAnimatorY.cancel();
         }
+        if (bounceBackSpringX != null && bounceBackSpringX.isRunning()) {
+            bounceBackSpringX.cancel();
+        }
+        if (bounceBackSpringY != null && bounceBackSpringY.isRunning()) {
+            bounceBackSpringY.cancel();
+        }
+    }
+
+    private void applyDragTranslation() {
+        if (!vsyncAlignedTranslation) {
+            applyTranslation(overscrollDistanceX, overscrollDistanceY);
+        } else if (!translationFramePending) {
+            // Input runs before animation callbacks in the same frame, so that frame already sees this event's samples
+            translationFramePending = true;
+            AnimationClock.getInstance().postFrameCallback(translationFrameCallback);
+        }
+    }
+
+    private void applyResampledTranslation(long sampleTimeNanos) {
+        int newest = sampleCount - 1;
+        if (newest < 0 || sampleTimeNanos >= sampleTimes[newest]) {
+            // Never extrapolates past the newest sample
+            applyTranslation(overscrollDistanceX, overscrollDistanceY);
+            return;
+        }
+        int after = newest;
+        while (after > 0 && sampleTimes[after - 1] > sampleTimeNanos) {
+            after--;
+        }
+        if (after == 0) {
+            applyTranslation(sampleDistanceX[0], sampleDistanceY[0]);
+        } else {
+            int before = after - 1;
+            float fraction = (sampleTimeNanos - sampleTimes[before])
+                / (float) (sampleTimes[after] - sampleTimes[before]);
+            applyTranslation(
+                AnimationMath.lerp(sampleDistanceX[before], sampleDistanceX[after], fraction),
+                AnimationMath.lerp(sampleDistanceY[before], sampleDistanceY[after], fraction));
+        }
+        // Newer samples are still held back; the next frame catches up even if no more input arrives
+        translationFramePending = true;
+        AnimationClock.getInstance().postFrameCallback(translationFrameCallback);
     }
 
     private void applyTranslation(float translationX, float translationY) {
@@ -216,6 +669,11 @@ public class SmoothOverScrollHelper {
     }
 
     private boolean canScrollHorizontally() {
+        refreshEdgeState();
+        return cachedCanScrollHorizontally;
+    }
+
+    private boolean computeCanScrollHorizontally() {
         if (targetView instanceof HorizontalScrollView) {
             return ((HorizontalScrollView) targetView).getChildCount() > 0;
         } else if (targetView instanceof RecyclerView) {
@@ -226,6 +684,11 @@ public class SmoothOverScrollHelper {
     }
 
     private boolean canScrollVertically() {
+        refreshEdgeState();
+        return cachedCanScrollVertically;
+    }
+
+    private boolean computeCanScrollVertically() {
         if (targetView instanceof ScrollView || targetView instanceof NestedScrollView) {
             return targetView instanceof ViewGroup && ((ViewGroup) targetView).getChildCount() > 0;
         } else if (targetView instanceof RecyclerView) {
@@ -238,6 +701,11 @@ public class SmoothOverScrollHelper {
     }
 
     private boolean isAtLeft() {
+        refreshEdgeState();
+        return cachedAtLeft;
+    }
+
+    private boolean computeIsAtLeft() {
         if (targetView instanceof HorizontalScrollView) {
             return ((HorizontalScrollView) targetView).getScrollX() == 0;
         } else if (targetView instanceof RecyclerView) {
@@ -247,6 +715,11 @@ public class SmoothOverScrollHelper {
     }
 
     private boolean isAtRight() {
+        refreshEdgeState();
+        return cachedAtRight;
+    }
+
+    private boolean computeIsAtRight() {
         if (targetView instanceof HorizontalScrollView) {
             HorizontalScrollView hsv = (HorizontalScrollView) targetView;
             View child = hsv.getChildAt(0);
@@ -259,6 +732,11 @@ public class SmoothOverScrollHelper {
     }
 
     private boolean isAtTop() {
+        refreshEdgeState();
+        return cachedAtTop;
+    }
+
+    private boolean computeIsAtTop() {
         if (targetView instanceof ScrollView) {
             return ((ScrollView) targetView).getScrollY() == 0;
         } else if (targetView instanceof NestedScrollView) {
@@ -277,6 +755,11 @@ public class SmoothOverScrollHelper {
     }
 
     private boolean isAtBottom() {
+        refreshEdgeState();
+        return cachedAtBottom;
+    }
+
+    private boolean computeIsAtBottom() {
         if (targetView instanceof ScrollView) {
             ScrollView scrollView = (ScrollView) targetView;
             View child = scrollView.getChildAt(0);
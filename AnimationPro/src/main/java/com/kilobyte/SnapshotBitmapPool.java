@@ -0,0 +1,91 @@
+package com.kilobyte;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+
+public class SnapshotBitmapPool implements ComponentCallbacks2 {
+    private static final int MAX_POOL_SIZE = 2;
+
+    private static SnapshotBitmapPool instance;
+
+    private final ArrayList<Bitmap> pool = new ArrayList<>(MAX_POOL_SIZE);
+    private boolean registered;
+    private int hitCount;
+    private int missCount;
+
+    private SnapshotBitmapPool() {
+    }
+
+    public static SnapshotBitmapPool getInstance() {
+        if (instance == null) {
+            instance = new SnapshotBitmapPool();
+        }
+        return instance;
+    }
+
+    void register(Context context) {
+        if (!registered) {
+            context.getApplicationContext().registerComponentCallbacks(this);
+            registered = true;
+        }
+    }
+
+    public Bitmap acquire(int width, int height, Bitmap.Config config) {
+        for (int i = pool.size() - 1; i >= 0; i--) {
+            Bitmap bitmap = pool.get(i);
+            if (bitmap.getWidth() == width && bitmap.getHeight() == height && bitmap.getConfig() == config) {
+                pool.remove(i);
+                hitCount++;
+                bitmap.eraseColor(0);
+                return bitmap;
+            }
+        }
+        missCount++;
+        return Bitmap.createBitmap(width, height, config);
+    }
+
+    public void release(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled() || pool.contains(bitmap)) {
+            return;
+        }
+        if (pool.size() >= MAX_POOL_SIZE) {
+            pool.remove(0).recycle();
+        }
+        pool.add(bitmap);
+    }
+
+    public void clear() {
+        for (int i = 0; i < pool.size(); i++) {
+            pool.get(i).recycle();
+        }
+        pool.clear();
+    }
+
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    public int getMissCount() {
+        return missCount;
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        clear();
+    }
+
+    @Override
+    public void onLowMemory() {
+        clear();
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+        // A rotation changes the window size, so none of the pooled buffers would match again
+        clear();
+    }
+}
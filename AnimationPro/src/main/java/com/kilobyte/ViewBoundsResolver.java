@@ -0,0 +1,139 @@
+package com.kilobyte;
+
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.view.ViewTreeObserver;
+
+// Resolves a view's bounds in rootView coordinates and caches them until a layout or scroll change invalidates them
+final class ViewBoundsResolver implements View.OnLayoutChangeListener, ViewTreeObserver.OnScrollChangedListener {
+    private final View view;
+    private final ViewGroup rootView;
+    private final int[] viewLocation = new int[2];
+    private final int[] rootLocation = new int[2];
+    private final float[] position = new float[2];
+
+    private boolean attached;
+    private boolean resolved;
+    private int version;
+    private float x;
+    private float y;
+    private float width;
+    private float height;
+
+    ViewBoundsResolver(View view, ViewGroup rootView) {
+        this.view = view;
+        this.rootView = rootView;
+    }
+
+    void attach() {
+        if (attached) {
+            return;
+        }
+        attached = true;
+        resolved = false;
+        view.addOnLayoutChangeListener(this);
+        rootView.addOnLayoutChangeListener(this);
+        rootView.getViewTreeObserver().addOnScrollChangedListener(this);
+    }
+
+    void detach() {
+        if (!attached) {
+            return;
+        }
+        attached = false;
+        view.removeOnLayoutChangeListener(this);
+        rootView.removeOnLayoutChangeListener(this);
+        ViewTreeObserver observer = rootView.getViewTreeObserver();
+        if (observer.isAlive()) {
+            observer.removeOnScrollChangedListener(this);
+        }
+    }
+
+    // Changes every time the cached bounds are invalidated, so callers can detect a moved view with one int compare
+    int getVersion() {
+        return version;
+    }
+
+    float getX() {
+        resolve();
+        return x;
+    }
+
+    float getY() {
+        resolve();
+        return y;
+    }
+
+    float getWidth() {
+        resolve();
+        return width;
+    }
+
+    float getHeight() {
+        resolve();
+        return height;
+    }
+
+    void invalidate() {
+        resolved = false;
+        version++;
+    }
+
+    @Override
+    public void onLayoutChange(View v, int left, int top, int right, int bottom,
+                               int oldLeft, int oldTop, int oldRight, int oldBottom) {
+        if (left != oldLeft || top != oldTop || right != oldRight || bottom != oldBottom) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void onScrollChanged() {
+        invalidate();
+    }
+
+    private void resolve() {
+        if (resolved && attached) {
+            return;
+        }
+        width = view.getWidth();
+        height = view.getHeight();
+        locate(view, rootView, position, viewLocation, rootLocation);
+        x = position[0];
+        y = position[1];
+        resolved = true;
+    }
+
+    // One walk up the parent chain; writes the view's top-left in rootView coordinates to out[0] and out[1].
+    // The int arrays are scratch space for the window-coordinate fallback.
+    static void locate(View view, ViewGroup rootView, float[] out, int[] viewLocation, int[] rootLocation) {
+        float offsetX = 0f;
+        float offsetY = 0f;
+        View current = view;
+        while (current != rootView) {
+            offsetX += current.getX();
+            offsetY += current.getY();
+            ViewParent parent = current.getParent();
+            if (!(parent instanceof View)) {
+                break;
+            }
+            current = (View) parent;
+            if (current != rootView) {
+                offsetX -= current.getScrollX();
+                offsetY -= current.getScrollY();
+            }
+        }
+
+        if (current == rootView) {
+            out[0] = offsetX;
+            out[1] = offsetY;
+        } else {
+            // Not a descendant of rootView (e.g. another window layer); fall back to window coordinates
+            view.getLocationInWindow(viewLocation);
+            rootView.getLocationInWindow(rootLocation);
+            out[0] = viewLocation[0] - rootLocation[0] + rootView.getScrollX();
+            out[1] = viewLocation[1] - rootLocation[1] + rootView.getScrollY();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.kilobyte;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.animation.AnimatorSet;
+import android.app.Activity;
+import android.content.Intent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class ActivityTransitionManagerTest {
+    private static final int TRANSITION_COUNT = 5;
+    private static final long DURATION_MILLIS = 100;
+    // Longest transition here is the enter set: its start delay plus the default duration
+    private static final int MAX_FRAMES = 100;
+
+    @Rule
+    public final AnimationHarness harness = new AnimationHarness();
+
+    private Activity activity;
+    private View rootView;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        activity.setContentView(new FrameLayout(activity));
+        harness.stepFrameworkFrame();
+        rootView = activity.findViewById(android.R.id.content);
+    }
+
+    @Test
+    public void repeatedTransitionsReuseTemplatesSnapshotViewAndBitmap() {
+        SnapshotBitmapPool pool = SnapshotBitmapPool.getInstance();
+        pool.clear();
+        int hitsBefore = pool.getHitCount();
+        int missesBefore = pool.getMissCount();
+
+        ActivityTransitionManager.TransitionTemplates templates = null;
+        AnimatorSet exitSet = null;
+        AnimatorSet finishSet = null;
+        AnimatorSet enterSet = null;
+        View snapshotView = null;
+        for (int i = 0; i < TRANSITION_COUNT; i++) {
+            View exitSnapshot = runExit();
+            boolean[] finished = new boolean[1];
+            new ActivityTransitionManager.TransitionBuilder(activity)
+                .setDuration(DURATION_MILLIS)
+                .withCompletionCallback(() -> finished[0] = true)
+                .start();
+            runUntil(() -> finished[0]);
+            ActivityTransitionManager.setupEnterAnimation(activity);
+            runUntil(() -> rootView.getAlpha() == 1f);
+
+            ActivityTransitionManager.TransitionTemplates current =
+                (ActivityTransitionManager.TransitionTemplates) rootView.getTag(R.id.animation_pro_transition_templates);
+            assertNotNull(current);
+            if (i == 0) {
+                templates = current;
+                exitSet = current.exitSet;
+                finishSet = current.finishSet;
+                enterSet = current.enterSet;
+                snapshotView = exitSnapshot;
+                continue;
+            }
+            assertSame("templates of transition " + i, templates, current);
+            assertSame("exitSet of transition " + i, exitSet, current.exitSet);
+            assertSame("finishSet of transition " + i, finishSet, current.finishSet);
+            assertSame("enterSet of transition " + i, enterSet, current.enterSet);
+            assertSame("snapshot view of transition " + i, snapshotView, exitSnapshot);
+        }
+
+        // Only the first snapshot allocates; every later one takes the bitmap the previous one returned
+        assertEquals(TRANSITION_COUNT - 1, pool.getHitCount() - hitsBefore);
+        assertEquals(1, pool.getMissCount() - missesBefore);
+    }
+
+    // Starts an exit to a new activity and returns the snapshot view it showed, once it has been taken down again
+    private View runExit() {
+        ViewGroup container = (ViewGroup) rootView.getParent();
+        int childCount = container.getChildCount();
+        new ActivityTransitionManager.TransitionBuilder(activity)
+            .setIntent(new Intent(activity, Activity.class))
+            .setDuration(DURATION_MILLIS)
+            .start();
+        assertEquals(childCount + 1, container.getChildCount());
+        View snapshot = container.getChildAt(childCount);
+        runUntil(() -> snapshot.getParent() == null);
+        assertEquals(1f, rootView.getAlpha(), 0f);
+        assertNull(snapshot.getParent());
+        return snapshot;
+    }
+
+    private void runUntil(Condition condition) {
+        for (int frames = 0; !condition.isMet(); frames++) {
+            assertTrue("transition still running after " + frames + " frames", frames < MAX_FRAMES);
+            harness.stepFrameworkFrame();
+        }
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+}
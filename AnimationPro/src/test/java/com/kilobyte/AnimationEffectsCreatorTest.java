@@ -0,0 +1,87 @@
+package com.kilobyte;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.view.View;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+@RunWith(RobolectricTestRunner.class)
+public class AnimationEffectsCreatorTest {
+    private static final int MAX_FRAMES = 200;
+
+    @Rule
+    public final AnimationHarness harness = new AnimationHarness();
+
+    private View view;
+
+    @Before
+    public void setUp() {
+        view = new View(RuntimeEnvironment.getApplication());
+    }
+
+    @Test
+    public void tapPressesInThenOvershootsBackToRest() {
+        AnimationManager.AnimationEffectsCreator.startTapResponseAnimation(view);
+        assertEquals(0.8f, view.getAlpha(), 0f);
+        assertTrue(view.hasTransientState());
+
+        float smallest = 1f;
+        float largest = 1f;
+        for (int frames = 0; view.hasTransientState(); frames++) {
+            assertTrue("tap still running after " + frames + " frames", frames < MAX_FRAMES);
+            harness.stepFrameworkFrame();
+            smallest = Math.min(smallest, view.getScaleX());
+            largest = Math.max(largest, view.getScaleX());
+        }
+
+        assertTrue("never pressed in: " + smallest, smallest < 0.97f);
+        assertTrue("never overshot: " + largest, largest > 1f);
+        assertEquals(1f, view.getScaleX(), 0f);
+        assertEquals(1f, view.getScaleY(), 0f);
+        assertEquals(1f, view.getAlpha(), 0f);
+    }
+
+    @Test
+    public void bounceGrowsAndSettlesBackToRest() {
+        AnimationManager.AnimationEffectsCreator.startBounceAnimation(view);
+        assertTrue(view.hasTransientState());
+
+        float largest = 1f;
+        for (int frames = 0; view.hasTransientState(); frames++) {
+            assertTrue("bounce still running after " + frames + " frames", frames < MAX_FRAMES);
+            harness.stepFrameworkFrame();
+            largest = Math.max(largest, view.getScaleY());
+            assertEquals(view.getScaleX(), view.getScaleY(), 0f);
+        }
+
+        assertTrue("never grew: " + largest, largest > 1f);
+        assertTrue("grew past the peak: " + largest, largest <= 1.07f + 1e-3f);
+        assertEquals(1f, view.getScaleX(), 0f);
+    }
+
+    @Test
+    public void springReturnsToRestAfterSwingingPastIt() {
+        view.setTranslationX(200f);
+        AnimationManager.AnimationEffectsCreator.startSpringAnimation(view);
+        assertTrue(view.hasTransientState());
+
+        float lowest = view.getTranslationX();
+        for (int frames = 0; view.hasTransientState(); frames++) {
+            assertTrue("spring still running after " + frames + " frames", frames < MAX_FRAMES);
+            harness.stepFrameworkFrame();
+            lowest = Math.min(lowest, view.getTranslationX());
+        }
+
+        // Medium bouncy damping swings past the rest position before settling
+        assertTrue("never swung past rest: " + lowest, lowest < 0f);
+        assertEquals(0f, view.getTranslationX(), 0f);
+        assertFalse(view.hasTransientState());
+    }
+}
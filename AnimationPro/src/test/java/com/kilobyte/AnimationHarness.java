@@ -0,0 +1,63 @@
+package com.kilobyte;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.rules.ExternalResource;
+import org.robolectric.shadows.ShadowChoreographer;
+import org.robolectric.shadows.ShadowLooper;
+
+// Steps the library's animations one frame at a time under Robolectric's paused looper. Two time bases are involved:
+//
+// - AnimationClock: the frame engine (staggered entrances, list updates, exit choreography), delayed starts,
+//   metrics timing and SmoothOverScrollHelper's vsync-aligned translation. The rule installs a ManualAnimationClock,
+//   so these only move when stepEngineFrame() or clock() is advanced.
+// - Robolectric's Choreographer: framework animators (fades, swipes, CustomTransition, ActivityTransitionManager,
+//   MultiElementTransition), SpringAnimation, View.post and traversals. The frame delay is pinned to FRAME_MILLIS,
+//   so each stepFrameworkFrame() is one animation frame and one layout pass at most.
+//
+// Not steppable here: the window animation of a launched activity belongs to the system, so transition tests stop
+// at startActivity. Allocation counts taken under Robolectric include its shadow dispatch, so allocation budgets of
+// the per-frame math are measured by the JMH benchmarks module instead.
+final class AnimationHarness extends ExternalResource {
+    static final long FRAME_MILLIS = 16;
+    // Longer than any animation the library starts, so a test never leaves frames behind for the next one
+    private static final int MAX_DRAIN_FRAMES = 10_000;
+
+    private ManualAnimationClock clock;
+    private Duration previousFrameDelay;
+
+    @Override
+    protected void before() {
+        clock = new ManualAnimationClock();
+        AnimationClock.install(clock);
+        previousFrameDelay = ShadowChoreographer.getFrameDelay();
+        ShadowChoreographer.setFrameDelay(Duration.ofMillis(FRAME_MILLIS));
+    }
+
+    @Override
+    protected void after() {
+        // The engine is a singleton that remembers its pending frame; let it finish on the clock it was posted to
+        clock.runUntilIdle(MAX_DRAIN_FRAMES);
+        AnimationClock.install(null);
+        ShadowChoreographer.setFrameDelay(previousFrameDelay);
+    }
+
+    ManualAnimationClock clock() {
+        return clock;
+    }
+
+    void stepEngineFrame() {
+        clock.advanceFrame();
+    }
+
+    // Runs whatever the looper has due, then exactly one Choreographer frame
+    void stepFrameworkFrame() {
+        ShadowLooper.idleMainLooper(FRAME_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    void stepFrameworkFor(long millis) {
+        for (long elapsed = 0; elapsed < millis; elapsed += FRAME_MILLIS) {
+            stepFrameworkFrame();
+        }
+    }
+}
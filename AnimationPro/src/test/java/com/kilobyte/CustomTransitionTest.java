@@ -0,0 +1,206 @@
+package com.kilobyte;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Color;
+import android.view.View;
+import android.widget.FrameLayout;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class CustomTransitionTest {
+    private static final long DURATION_MILLIS = 300;
+
+    @Rule
+    public final AnimationHarness harness = new AnimationHarness();
+
+    private LayoutCountingFrameLayout rootView;
+    private View sourceView;
+    private View targetView;
+
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        rootView = new LayoutCountingFrameLayout(activity);
+        sourceView = addChild(activity, 100, 50, 0, 0);
+        targetView = addChild(activity, 200, 100, 100, 200);
+        activity.setContentView(rootView);
+        harness.stepFrameworkFrame();
+    }
+
+    @Test
+    public void transformModeLaysOutOnlyForTheCopyThatWasAdded() {
+        CustomTransition transition = new CustomTransition(sourceView, targetView, rootView);
+        transition.setDuration(DURATION_MILLIS);
+        transition.startTransition();
+        View transitionView = rootView.getChildAt(rootView.getChildCount() - 1);
+        assertEquals(View.INVISIBLE, targetView.getVisibility());
+
+        // The frame after the single addView lays it out once
+        harness.stepFrameworkFrame();
+        int layoutsAfterAdd = rootView.layoutCount;
+
+        int frames = 0;
+        float previousScale = transitionView.getScaleX();
+        while (true) {
+            harness.stepFrameworkFrame();
+            if (transitionView.getParent() != rootView) {
+                // Removing the copy at the end is a layout of its own
+                break;
+            }
+            frames++;
+            assertEquals("layout pass at frame " + frames, layoutsAfterAdd, rootView.layoutCount);
+            assertTrue("scale went back at frame " + frames, transitionView.getScaleX() >= previousScale);
+            previousScale = transitionView.getScaleX();
+            assertTrue("still running after " + frames + " frames", frames < 2 * DURATION_MILLIS / AnimationHarness.FRAME_MILLIS);
+        }
+
+        assertTrue(frames >= DURATION_MILLIS / AnimationHarness.FRAME_MILLIS - 2);
+        assertTrue(previousScale > 1.5f);
+        assertEquals(View.VISIBLE, targetView.getVisibility());
+    }
+
+    @Test
+    public void resizeModeLaysOutEveryFrame() {
+        CustomTransition transition = new CustomTransition(sourceView, targetView, rootView);
+        transition.setDuration(DURATION_MILLIS);
+        transition.setScaleTransformEnabled(false);
+        transition.startTransition();
+        View transitionView = rootView.getChildAt(rootView.getChildCount() - 1);
+
+        harness.stepFrameworkFrame();
+        int layoutsAfterAdd = rootView.layoutCount;
+        int frames = 0;
+        while (true) {
+            harness.stepFrameworkFrame();
+            if (transitionView.getParent() != rootView) {
+                break;
+            }
+            frames++;
+            assertTrue("still running after " + frames + " frames", frames < 2 * DURATION_MILLIS / AnimationHarness.FRAME_MILLIS);
+        }
+
+        // Shows the counter sees the per-frame requestLayout that transform mode avoids
+        assertTrue(rootView.layoutCount - layoutsAfterAdd >= frames);
+        assertNull(transitionView.getParent());
+    }
+
+    @Test
+    public void overlappingRunsKeepTheirOwnState() {
+        CustomTransition transition = new CustomTransition(sourceView, targetView, rootView);
+        transition.setDuration(DURATION_MILLIS);
+        transition.startTransition();
+        View firstCopy = rootView.getChildAt(rootView.getChildCount() - 1);
+        harness.stepFrameworkFrame();
+        harness.stepFrameworkFrame();
+
+        // The second run starts past the target, so the first copy would overshoot if it read the second run's start
+        sourceView.setTranslationX(300f);
+        transition.startTransition();
+        View secondCopy = rootView.getChildAt(rootView.getChildCount() - 1);
+        assertEquals(300f, secondCopy.getX(), 0f);
+
+        int frames = 0;
+        while (firstCopy.getParent() == rootView || secondCopy.getParent() == rootView) {
+            harness.stepFrameworkFrame();
+            frames++;
+            assertTrue("still running after " + frames + " frames", frames < 2 * DURATION_MILLIS / AnimationHarness.FRAME_MILLIS);
+            if (firstCopy.getParent() == rootView) {
+                assertTrue("first copy left its path at frame " + frames, firstCopy.getX() <= 100f);
+            }
+        }
+
+        assertAtTarget(firstCopy);
+        assertAtTarget(secondCopy);
+    }
+
+    @Test
+    public void targetThatMovesMidwayIsFollowedWithoutAJump() {
+        CustomTransition transition = new CustomTransition(sourceView, targetView, rootView);
+        transition.setDuration(DURATION_MILLIS);
+        transition.startTransition();
+        View copy = rootView.getChildAt(rootView.getChildCount() - 1);
+        for (int i = 0; i < 5; i++) {
+            harness.stepFrameworkFrame();
+        }
+
+        // The target's next layout moves it 200 px further right
+        FrameLayout.LayoutParams params = (FrameLayout.LayoutParams) targetView.getLayoutParams();
+        params.leftMargin = 300;
+        targetView.setLayoutParams(params);
+
+        int frames = 0;
+        float previousX = copy.getX();
+        while (copy.getParent() == rootView) {
+            harness.stepFrameworkFrame();
+            frames++;
+            assertTrue("still running after " + frames + " frames", frames < 2 * DURATION_MILLIS / AnimationHarness.FRAME_MILLIS);
+            if (copy.getParent() == rootView) {
+                // Heads on from where it was instead of restarting from the source or jumping ahead
+                assertTrue("went back at frame " + frames, copy.getX() >= previousX);
+                assertTrue("jumped at frame " + frames, copy.getX() - previousX < 100f);
+                previousX = copy.getX();
+            }
+        }
+
+        assertEquals(300f, copy.getX(), 1e-3f);
+        assertEquals(200f, copy.getY(), 1e-3f);
+        assertEquals(2f, copy.getScaleX(), 1e-3f);
+        assertEquals(View.VISIBLE, targetView.getVisibility());
+    }
+
+    @Test
+    public void copyLeavesItsLayerBehindWhenTheTransitionEnds() {
+        CustomTransition transition = new CustomTransition(sourceView, targetView, rootView);
+        transition.setDuration(DURATION_MILLIS);
+        transition.startTransition();
+        View copy = rootView.getChildAt(rootView.getChildCount() - 1);
+        assertEquals(View.LAYER_TYPE_HARDWARE, copy.getLayerType());
+
+        harness.stepFrameworkFor(2 * DURATION_MILLIS);
+
+        assertNull(copy.getParent());
+        assertEquals(View.LAYER_TYPE_NONE, copy.getLayerType());
+    }
+
+    // Target is 200x100 at (100, 200); the copies keep the source's 100x50 and scale up
+    private static void assertAtTarget(View copy) {
+        assertEquals(100f, copy.getX(), 1e-3f);
+        assertEquals(200f, copy.getY(), 1e-3f);
+        assertEquals(2f, copy.getScaleX(), 1e-3f);
+        assertEquals(2f, copy.getScaleY(), 1e-3f);
+    }
+
+    private View addChild(Context context, int width, int height, int left, int top) {
+        View child = new View(context);
+        child.setBackgroundColor(Color.BLUE);
+        FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(width, height);
+        params.leftMargin = left;
+        params.topMargin = top;
+        rootView.addView(child, params);
+        return child;
+    }
+
+    private static final class LayoutCountingFrameLayout extends FrameLayout {
+        int layoutCount;
+
+        LayoutCountingFrameLayout(Context context) {
+            super(context);
+        }
+
+        @Override
+        protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+            layoutCount++;
+            super.onLayout(changed, left, top, right, bottom);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.kilobyte;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.LinearLayout;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+@RunWith(RobolectricTestRunner.class)
+public class ExitAnimationControllerTest {
+    private static final int MAX_FRAMES = 1_000;
+
+    @Rule
+    public final AnimationHarness harness = new AnimationHarness();
+
+    private LinearLayout container;
+    private View first;
+    private View second;
+    private View third;
+    private int completions;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.getApplication();
+        container = new LinearLayout(context);
+        container.setOrientation(LinearLayout.VERTICAL);
+        first = new View(context);
+        second = new View(context);
+        third = new View(context);
+        AnimationManager.SmoothAnimationCreator.animateListViewItems(container, Arrays.asList(first, second, third));
+        assertTrue(harness.clock().runUntilIdle(MAX_FRAMES));
+    }
+
+    @Test
+    public void forwardExitStepsOverAChildThatIsLeavingTheList() {
+        AnimationManager.SmoothAnimationCreator.updateListViewItems(container, Arrays.asList(second, third));
+        harness.stepEngineFrame();
+
+        AnimationManager.ExitAnimationController controller = AnimationManager.ExitAnimationController.of(container)
+            .setVisibleOnly(false)
+            .setOrder(AnimationManager.ExitAnimationController.ORDER_FORWARD);
+        controller.start(() -> completions++);
+        assertTrue(controller.isRunning());
+        assertEquals(3, container.getChildCount());
+        assertTrue(harness.clock().runUntilIdle(MAX_FRAMES));
+
+        assertEquals(1, completions);
+        assertFalse(controller.isRunning());
+        // The list exit still removed its child; the screen exit took the rest
+        assertEquals(2, container.getChildCount());
+        assertSame(second, container.getChildAt(0));
+        assertSame(third, container.getChildAt(1));
+        assertEquals(0f, second.getAlpha(), 0f);
+        assertEquals(0f, third.getAlpha(), 0f);
+    }
+
+    @Test
+    public void startExitAnimationCompletesWhenTheLastChildEnds() {
+        AnimationManager.ExitAnimationController controller = AnimationManager.ExitAnimationController.of(container)
+            .setVisibleOnly(false);
+        AnimationManager.ExitAnimationController.startExitAnimation(container, () -> completions++);
+        assertTrue(controller.isRunning());
+
+        // Reverse order: the bottom child leaves first, the top one two stagger steps later
+        harness.stepEngineFrame();
+        assertTrue(third.getAlpha() < 1f);
+        assertEquals(1f, first.getAlpha(), 0f);
+
+        // Three children, 20 ms apart, 70 ms each: done long before the safety timeout
+        long expectedFrames = framesFor(2 * 20 + 70);
+        assertEquals(expectedFrames - 1, stepUntilComplete());
+        assertFalse(controller.isRunning());
+        for (View child : Arrays.asList(first, second, third)) {
+            assertEquals(0f, child.getAlpha(), 0f);
+            assertEquals(100f, child.getTranslationY(), 0f);
+        }
+    }
+
+    @Test
+    public void maxTotalDurationShrinksTheStagger() {
+        AnimationManager.ExitAnimationController controller = AnimationManager.ExitAnimationController.of(container)
+            .setVisibleOnly(false)
+            .setMaxTotalDuration(90);
+        controller.start(() -> completions++);
+
+        // 90 ms for three children of 70 ms leaves 10 ms between them
+        assertEquals(framesFor(90), stepUntilComplete());
+    }
+
+    @Test
+    public void cancelBringsTheChildrenBackWithoutCompleting() {
+        AnimationManager.ExitAnimationController controller = AnimationManager.ExitAnimationController.of(container)
+            .setVisibleOnly(false);
+        controller.start(() -> completions++);
+        harness.stepEngineFrame();
+        harness.stepEngineFrame();
+
+        AnimationManager.ExitAnimationController.cancelExitAnimation(container);
+        assertFalse(controller.isRunning());
+        assertTrue(harness.clock().runUntilIdle(MAX_FRAMES));
+
+        assertEquals(0, completions);
+        for (View child : Arrays.asList(first, second, third)) {
+            assertEquals(1f, child.getAlpha(), 0f);
+            assertEquals(0f, child.getTranslationY(), 0f);
+        }
+    }
+
+    @Test
+    public void startingAgainDropsTheEarlierCompletion() {
+        AnimationManager.ExitAnimationController controller = AnimationManager.ExitAnimationController.of(container)
+            .setVisibleOnly(false);
+        int[] earlier = new int[1];
+        controller.start(() -> earlier[0]++);
+        harness.stepEngineFrame();
+
+        controller.start(() -> completions++);
+        assertTrue(harness.clock().runUntilIdle(MAX_FRAMES));
+
+        assertEquals(0, earlier[0]);
+        assertEquals(1, completions);
+    }
+
+    // Engine frames until the completion has run, counting the frame it ran in
+    private long stepUntilComplete() {
+        long frames = 0;
+        while (completions == 0) {
+            assertTrue("exit still running after " + frames + " frames", frames < MAX_FRAMES);
+            harness.stepEngineFrame();
+            frames++;
+        }
+        return frames;
+    }
+
+    private long framesFor(long millis) {
+        long interval = harness.clock().getFrameIntervalNanos();
+        return (millis * 1_000_000L + interval - 1) / interval;
+    }
+}
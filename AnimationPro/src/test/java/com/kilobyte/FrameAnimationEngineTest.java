@@ -0,0 +1,78 @@
+package com.kilobyte;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.LinearLayout;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+@RunWith(RobolectricTestRunner.class)
+public class FrameAnimationEngineTest {
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    // animateListViewItems starts the first child three stagger slots in
+    private static final int LIST_DELAY_SLOTS = 3;
+
+    @Rule
+    public final AnimationHarness harness = new AnimationHarness();
+
+    @Test
+    public void oneChildIsDrivenByOneFrameCallback() {
+        assertOneEngineDrives(1);
+    }
+
+    @Test
+    public void tenChildrenAreDrivenByOneFrameCallback() {
+        assertOneEngineDrives(10);
+    }
+
+    @Test
+    public void hundredChildrenAreDrivenByOneFrameCallback() {
+        assertOneEngineDrives(100);
+    }
+
+    private void assertOneEngineDrives(int childCount) {
+        Context context = RuntimeEnvironment.getApplication();
+        LinearLayout container = new LinearLayout(context);
+        List<View> items = new ArrayList<>(childCount);
+        for (int i = 0; i < childCount; i++) {
+            items.add(new View(context));
+        }
+        FrameAnimationEngine engine = FrameAnimationEngine.getInstance();
+        ManualAnimationClock clock = harness.clock();
+
+        AnimationManager.SmoothAnimationCreator.animateListViewItems(container, items);
+
+        assertSame(engine, FrameAnimationEngine.getInstance());
+        assertEquals(childCount, engine.getActiveCount());
+        assertEquals(1, clock.getPendingFrameCallbackCount());
+
+        int frames = 0;
+        while (clock.hasPendingFrame()) {
+            harness.stepEngineFrame();
+            frames++;
+            // Each frame reposts at most once, however many children are still running
+            assertEquals(engine.getActiveCount() > 0 ? 1 : 0, clock.getPendingFrameCallbackCount());
+        }
+
+        long lastEndNanos = ((childCount - 1 + LIST_DELAY_SLOTS) * AnimationManager.ANIMATION_STAGGER_DELAY
+            + AnimationManager.ANIMATION_BASE_DURATION) * NANOS_PER_MILLI;
+        long interval = clock.getFrameIntervalNanos();
+        assertEquals((lastEndNanos + interval - 1) / interval, frames);
+        assertEquals(frames, clock.getFramesProduced());
+        assertEquals(0, engine.getActiveCount());
+        for (int i = 0; i < childCount; i++) {
+            assertEquals(0f, items.get(i).getTranslationY(), 0f);
+            assertEquals(1f, items.get(i).getAlpha(), 0f);
+            assertFalse(items.get(i).hasTransientState());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.kilobyte;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Activity;
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+@RunWith(RobolectricTestRunner.class)
+public class ListViewItemsTest {
+    private static final int MAX_FRAMES = 1_000;
+    private static final int ROW_HEIGHT = 50;
+
+    @Rule
+    public final AnimationHarness harness = new AnimationHarness();
+
+    private LinearLayout container;
+    private View first;
+    private View second;
+    private View third;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.getApplication();
+        container = new LinearLayout(context);
+        container.setOrientation(LinearLayout.VERTICAL);
+        first = new View(context);
+        second = new View(context);
+        third = new View(context);
+        AnimationManager.SmoothAnimationCreator.animateListViewItems(container, Arrays.asList(first, second, third));
+        assertTrue(harness.clock().runUntilIdle(MAX_FRAMES));
+    }
+
+    @Test
+    public void rebuildWhileAChildIsLeavingKeepsIt() {
+        AnimationManager.SmoothAnimationCreator.updateListViewItems(container, Arrays.asList(first, third));
+        harness.stepEngineFrame();
+        harness.stepEngineFrame();
+        assertEquals(3, container.getChildCount());
+
+        List<View> items = Arrays.asList(first, second, third);
+        AnimationManager.SmoothAnimationCreator.animateListViewItems(container, items);
+        assertTrue(harness.clock().runUntilIdle(MAX_FRAMES));
+
+        assertChildren(items);
+    }
+
+    @Test
+    public void childLeavesOnceItsExitEnds() {
+        AnimationManager.SmoothAnimationCreator.updateListViewItems(container, Arrays.asList(first, third));
+        assertTrue(harness.clock().runUntilIdle(MAX_FRAMES));
+
+        assertChildren(Arrays.asList(first, third));
+        assertEquals(0f, second.getTranslationY(), 0f);
+        assertEquals(1f, second.getAlpha(), 0f);
+    }
+
+    @Test
+    public void addedChildEntersFromBelow() {
+        View fourth = new View(RuntimeEnvironment.getApplication());
+        List<View> items = Arrays.asList(first, second, third, fourth);
+        AnimationManager.SmoothAnimationCreator.updateListViewItems(container, items);
+
+        assertSame(fourth, container.getChildAt(3));
+        assertEquals(100f, fourth.getTranslationY(), 0f);
+        assertEquals(0f, fourth.getAlpha(), 0f);
+        assertTrue(harness.clock().runUntilIdle(MAX_FRAMES));
+
+        assertChildren(items);
+    }
+
+    @Test
+    public void childrenAfterARemovedOneSlideUpIntoItsSlot() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        LinearLayout laidOut = new LinearLayout(activity);
+        laidOut.setOrientation(LinearLayout.VERTICAL);
+        View top = new View(activity);
+        View middle = new View(activity);
+        View bottom = new View(activity);
+        for (View child : Arrays.asList(top, middle, bottom)) {
+            laidOut.addView(child, new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ROW_HEIGHT));
+        }
+        activity.setContentView(laidOut);
+        harness.stepFrameworkFrame();
+
+        AnimationManager.SmoothAnimationCreator.updateListViewItems(laidOut, Arrays.asList(middle, bottom));
+        for (int frames = 0; top.getParent() == laidOut; frames++) {
+            assertTrue("exit still running after " + frames + " frames", frames < MAX_FRAMES);
+            harness.stepEngineFrame();
+        }
+        // The next traversal lays the rest out one row higher; they start drawn where they were and slide up
+        harness.stepFrameworkFrame();
+        assertEquals(0, middle.getTop());
+        assertEquals(ROW_HEIGHT, middle.getTranslationY(), 0f);
+        assertEquals(ROW_HEIGHT, bottom.getTranslationY(), 0f);
+
+        float previous = ROW_HEIGHT;
+        while (harness.clock().hasPendingFrame()) {
+            harness.stepEngineFrame();
+            assertTrue(middle.getTranslationY() <= previous);
+            previous = middle.getTranslationY();
+        }
+        assertEquals(0f, middle.getTranslationY(), 0f);
+        assertEquals(0f, bottom.getTranslationY(), 0f);
+    }
+
+    private void assertChildren(List<View> expected) {
+        assertEquals(expected.size(), container.getChildCount());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame("child " + i, expected.get(i), container.getChildAt(i));
+            assertEquals(1f, expected.get(i).getAlpha(), 0f);
+            assertEquals(0f, expected.get(i).getTranslationY(), 0f);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.kilobyte;
+
+import android.view.Choreographer;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// Virtual clock: time only moves when advanceFrame/advanceTimeBy is called, so every frame the engine produces
+// can be inspected. Delayed actions due at a frame run before that frame's callbacks, as on the real looper.
+final class ManualAnimationClock extends AnimationClock {
+    private static final long DEFAULT_FRAME_INTERVAL_NANOS = 16_666_667L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final ArrayList<Choreographer.FrameCallback> frameCallbacks = new ArrayList<>();
+    private final ArrayList<Choreographer.FrameCallback> runningCallbacks = new ArrayList<>();
+    private final ArrayList<Runnable> delayedActions = new ArrayList<>();
+    private long[] delayedDueTimes = new long[8];
+
+    private long nowNanos;
+    private long frameIntervalNanos = DEFAULT_FRAME_INTERVAL_NANOS;
+    private int framesProduced;
+
+    ManualAnimationClock() {
+    }
+
+    ManualAnimationClock(long startNanos) {
+        this.nowNanos = startNanos;
+    }
+
+    void setFrameIntervalNanos(long intervalNanos) {
+        frameIntervalNanos = intervalNanos > 0 ? intervalNanos : DEFAULT_FRAME_INTERVAL_NANOS;
+    }
+
+    @Override
+    public long nanoTime() {
+        return nowNanos;
+    }
+
+    @Override
+    public void postFrameCallback(Choreographer.FrameCallback callback) {
+        frameCallbacks.add(callback);
+    }
+
+    @Override
+    public void removeFrameCallback(Choreographer.FrameCallback callback) {
+        while (frameCallbacks.remove(callback)) {
+            // Choreographer removes every pending post of the callback
+        }
+    }
+
+    @Override
+    public void postDelayed(Runnable action, long delayMillis) {
+        int index = delayedActions.size();
+        if (index == delayedDueTimes.length) {
+            delayedDueTimes = Arrays.copyOf(delayedDueTimes, index * 2);
+        }
+        delayedActions.add(action);
+        delayedDueTimes[index] = nowNanos + Math.max(0, delayMillis) * NANOS_PER_MILLI;
+    }
+
+    @Override
+    public void removeCallbacks(Runnable action) {
+        for (int i = delayedActions.size() - 1; i >= 0; i--) {
+            if (delayedActions.get(i) == action) {
+                removeDelayedAt(i);
+            }
+        }
+    }
+
+    // Moves time forward by one frame interval, runs what became due, then renders one frame
+    void advanceFrame() {
+        nowNanos += frameIntervalNanos;
+        runDueActions();
+        if (frameCallbacks.isEmpty()) {
+            return;
+        }
+        // Callbacks posted while this frame runs belong to the next one
+        runningCallbacks.addAll(frameCallbacks);
+        frameCallbacks.clear();
+        for (int i = 0; i < runningCallbacks.size(); i++) {
+            runningCallbacks.get(i).doFrame(nowNanos);
+        }
+        runningCallbacks.clear();
+        framesProduced++;
+    }
+
+    // Advances whole frames while they fit, then the remainder without a frame
+    void advanceTimeBy(long millis) {
+        long target = nowNanos + millis * NANOS_PER_MILLI;
+        while (nowNanos + frameIntervalNanos <= target) {
+            advanceFrame();
+        }
+        nowNanos = target;
+        runDueActions();
+    }
+
+    // Steps frames until nothing is scheduled any more; returns false if maxFrames was reached first
+    boolean runUntilIdle(int maxFrames) {
+        for (int i = 0; i < maxFrames; i++) {
+            if (frameCallbacks.isEmpty() && delayedActions.isEmpty()) {
+                return true;
+            }
+            advanceFrame();
+        }
+        return frameCallbacks.isEmpty() && delayedActions.isEmpty();
+    }
+
+    int getFramesProduced() {
+        return framesProduced;
+    }
+
+    boolean hasPendingFrame() {
+        return !frameCallbacks.isEmpty();
+    }
+
+    // Posts waiting for the next frame; the frame engine keeps this at one however many views it drives
+    int getPendingFrameCallbackCount() {
+        return frameCallbacks.size();
+    }
+
+    long getFrameIntervalNanos() {
+        return frameIntervalNanos;
+    }
+
+    // Earliest due first; actions posted by a running action run in the same pass once due, like zero-delay posts
+    private void runDueActions() {
+        while (true) {
+            int next = -1;
+            for (int i = 0; i < delayedActions.size(); i++) {
+                if (delayedDueTimes[i] <= nowNanos && (next < 0 || delayedDueTimes[i] < delayedDueTimes[next])) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                return;
+            }
+            Runnable action = delayedActions.get(next);
+            removeDelayedAt(next);
+            action.run();
+        }
+    }
+
+    private void removeDelayedAt(int index) {
+        int last = delayedActions.size() - 1;
+        System.arraycopy(delayedDueTimes, index + 1, delayedDueTimes, index, last - index);
+        delayedActions.remove(index);
+    }
+}
@@ -0,0 +1,92 @@
+package com.kilobyte;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Color;
+import android.view.View;
+import android.widget.FrameLayout;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class MultiElementTransitionTest {
+    private static final long DURATION_MILLIS = 300;
+
+    @Rule
+    public final AnimationHarness harness = new AnimationHarness();
+
+    private FrameLayout rootView;
+    private View firstSource;
+    private View firstTarget;
+    private View secondSource;
+    private View secondTarget;
+
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        rootView = new FrameLayout(activity);
+        firstSource = addChild(activity, 100, 50, 0, 0);
+        firstTarget = addChild(activity, 200, 100, 100, 200);
+        secondSource = addChild(activity, 40, 40, 300, 0);
+        secondTarget = addChild(activity, 20, 80, 10, 400);
+        activity.setContentView(rootView);
+        harness.stepFrameworkFrame();
+    }
+
+    @Test
+    public void twoPairsReachTheirTargetBounds() {
+        MultiElementTransition transition = new MultiElementTransition(rootView)
+            .addPair(firstSource, firstTarget)
+            .addPair(secondSource, secondTarget)
+            .setDuration(DURATION_MILLIS);
+        int childCount = rootView.getChildCount();
+        transition.startTransition();
+
+        View firstProxy = transition.getProxy(0);
+        View secondProxy = transition.getProxy(1);
+        // The proxies live in the overlay, not among rootView's children
+        assertEquals(childCount, rootView.getChildCount());
+        assertEquals(View.INVISIBLE, firstTarget.getVisibility());
+        assertEquals(View.INVISIBLE, secondTarget.getVisibility());
+        assertEquals(View.LAYER_TYPE_HARDWARE, firstProxy.getLayerType());
+
+        int frames = 0;
+        while (firstTarget.getVisibility() != View.VISIBLE) {
+            harness.stepFrameworkFrame();
+            frames++;
+            assertTrue("still running after " + frames + " frames", frames < 2 * DURATION_MILLIS / AnimationHarness.FRAME_MILLIS);
+        }
+
+        assertAtBounds(firstProxy, 100f, 200f, 2f, 2f);
+        assertAtBounds(secondProxy, 10f, 400f, 0.5f, 2f);
+        assertEquals(View.VISIBLE, secondTarget.getVisibility());
+        assertEquals(View.LAYER_TYPE_NONE, firstProxy.getLayerType());
+        assertNull(firstProxy.getParent());
+        assertNull(secondProxy.getParent());
+    }
+
+    private static void assertAtBounds(View proxy, float x, float y, float scaleX, float scaleY) {
+        assertEquals(x, proxy.getX(), 1e-3f);
+        assertEquals(y, proxy.getY(), 1e-3f);
+        assertEquals(scaleX, proxy.getScaleX(), 1e-3f);
+        assertEquals(scaleY, proxy.getScaleY(), 1e-3f);
+    }
+
+    private View addChild(Context context, int width, int height, int left, int top) {
+        View child = new View(context);
+        child.setBackgroundColor(Color.BLUE);
+        FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(width, height);
+        params.leftMargin = left;
+        params.topMargin = top;
+        rootView.addView(child, params);
+        return child;
+    }
+}
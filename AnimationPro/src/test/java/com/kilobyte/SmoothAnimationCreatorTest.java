@@ -0,0 +1,122 @@
+package com.kilobyte;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.animation.TimeInterpolator;
+import android.app.Activity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+@RunWith(RobolectricTestRunner.class)
+public class SmoothAnimationCreatorTest {
+    private static final long FADE_DURATION_MILLIS = 800;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    @Rule
+    public final AnimationHarness harness = new AnimationHarness();
+
+    @Test
+    public void fadeInRisesEveryFrameAndHoldsTheLayerScopeOnlyWhileRunning() {
+        View view = new View(RuntimeEnvironment.getApplication());
+
+        AnimationManager.SmoothAnimationCreator.startFadeInAnimation(view);
+        assertEquals(0f, view.getAlpha(), 0f);
+        assertTrue(view.hasTransientState());
+
+        int frames = 0;
+        float previous = 0f;
+        while (view.getAlpha() < 1f && frames < 2 * FADE_DURATION_MILLIS / AnimationHarness.FRAME_MILLIS) {
+            harness.stepFrameworkFrame();
+            frames++;
+            assertTrue("alpha went back at frame " + frames, view.getAlpha() >= previous);
+            previous = view.getAlpha();
+        }
+
+        assertEquals(1f, view.getAlpha(), 0f);
+        // One frame to take the start time, then one per frame interval of the duration
+        long expectedFrames = 1 + (FADE_DURATION_MILLIS + AnimationHarness.FRAME_MILLIS - 1) / AnimationHarness.FRAME_MILLIS;
+        assertTrue("took " + frames + " frames", Math.abs(frames - expectedFrames) <= 1);
+        assertFalse(view.hasTransientState());
+    }
+
+    @Test
+    public void containerContentStaggersOnEngineFramesAfterTheStartDelay() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        LinearLayout container = new LinearLayout(activity);
+        container.setOrientation(LinearLayout.VERTICAL);
+        int childCount = 3;
+        for (int i = 0; i < childCount; i++) {
+            container.addView(new View(activity),
+                new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 50));
+        }
+        activity.setContentView(container);
+        harness.stepFrameworkFrame();
+
+        FrameAnimationEngine engine = FrameAnimationEngine.getInstance();
+        ManualAnimationClock clock = harness.clock();
+        AnimationManager.SmoothAnimationCreator.startContainerContentAnimation(container);
+        clock.advanceTimeBy(99);
+        assertEquals(0, engine.getActiveCount());
+        clock.advanceTimeBy(1);
+        assertEquals(childCount, engine.getActiveCount());
+
+        long startNanos = clock.nanoTime();
+        long durationNanos = AnimationManager.ANIMATION_BASE_DURATION * NANOS_PER_MILLI;
+        TimeInterpolator interpolator = InterpolatorRegistry.springTable();
+        int frames = 0;
+        while (clock.hasPendingFrame()) {
+            harness.stepEngineFrame();
+            frames++;
+            for (int i = 0; i < childCount; i++) {
+                View child = container.getChildAt(i);
+                long elapsed = clock.nanoTime() - startNanos - i * AnimationManager.ANIMATION_STAGGER_DELAY * NANOS_PER_MILLI;
+                float value = elapsed < 0 ? 0f : interpolator.getInterpolation(Math.min(1f, (float) elapsed / durationNanos));
+                assertEquals("translationY of child " + i + " at frame " + frames,
+                    100f * (1f - value), child.getTranslationY(), 1e-3f);
+                assertEquals("alpha of child " + i + " at frame " + frames,
+                    value, child.getAlpha(), 1e-3f);
+            }
+        }
+
+        // The last child starts latest and its end frame is the first one at or past its end time
+        long lastEndNanos = ((childCount - 1) * AnimationManager.ANIMATION_STAGGER_DELAY
+            + AnimationManager.ANIMATION_BASE_DURATION) * NANOS_PER_MILLI;
+        long interval = clock.getFrameIntervalNanos();
+        assertEquals((lastEndNanos + interval - 1) / interval, frames);
+        assertEquals(0, engine.getActiveCount());
+    }
+
+    @Test
+    public void containerContentWaitsForTheFirstLayoutBeforeChoosingVisibleChildren() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        LinearLayout container = new LinearLayout(activity);
+        container.setOrientation(LinearLayout.VERTICAL);
+        int childCount = 3;
+        for (int i = 0; i < childCount; i++) {
+            container.addView(new View(activity),
+                new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 50));
+        }
+
+        FrameAnimationEngine engine = FrameAnimationEngine.getInstance();
+        AnimationManager.SmoothAnimationCreator.startContainerContentAnimation(container);
+        // The delay ends before the container is attached; nothing is visible yet, so nothing is chosen
+        harness.clock().advanceTimeBy(100);
+        assertEquals(0, engine.getActiveCount());
+
+        activity.setContentView(container);
+        harness.stepFrameworkFrame();
+        assertEquals(childCount, engine.getActiveCount());
+        for (int i = 0; i < childCount; i++) {
+            assertEquals(100f, container.getChildAt(i).getTranslationY(), 0f);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.kilobyte;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Activity;
+import android.database.DataSetObserver;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ArrayAdapter;
+import android.widget.FrameLayout;
+import android.widget.GridView;
+import android.widget.ScrollView;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class SmoothOverScrollHelperTest {
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final int MAX_FRAMES = 200;
+
+    @Rule
+    public final AnimationHarness harness = new AnimationHarness();
+
+    private Activity activity;
+    private ScrollView scrollView;
+    private long downTime;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        scrollView = new ScrollView(activity);
+        // Shorter than the scroll view, so it sits at both edges
+        scrollView.addView(new View(activity), new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 50));
+        activity.setContentView(scrollView);
+        harness.stepFrameworkFrame();
+        downTime = SystemClock.uptimeMillis();
+    }
+
+    @Test
+    public void dragPastTheTopTranslatesWithResistance() {
+        SmoothOverScrollHelper helper = new SmoothOverScrollHelper(scrollView);
+        helper.setPhysicsBounceBackEnabled(false);
+
+        touch(MotionEvent.ACTION_DOWN, 0, 100f);
+        touch(MotionEvent.ACTION_MOVE, 16, 200f);
+        assertEquals(100f * SmoothOverScrollHelper.RESISTANCE_FACTOR, scrollView.getTranslationY(), 1e-3f);
+
+        // Dragging back gives the overscroll back at the same rate
+        touch(MotionEvent.ACTION_MOVE, 32, 150f);
+        assertEquals(50f * SmoothOverScrollHelper.RESISTANCE_FACTOR, scrollView.getTranslationY(), 1e-3f);
+    }
+
+    @Test
+    public void overscrollStopsAtTheMaximumDistance() {
+        SmoothOverScrollHelper helper = new SmoothOverScrollHelper(scrollView);
+        helper.setPhysicsBounceBackEnabled(false);
+
+        touch(MotionEvent.ACTION_DOWN, 0, 0f);
+        touch(MotionEvent.ACTION_MOVE, 16, 10_000f);
+        assertEquals(SmoothOverScrollHelper.MAX_OVERSCROLL_DISTANCE, scrollView.getTranslationY(), 0f);
+    }
+
+    @Test
+    public void releaseBouncesBackOverTheFixedDuration() {
+        SmoothOverScrollHelper helper = new SmoothOverScrollHelper(scrollView);
+        helper.setPhysicsBounceBackEnabled(false);
+
+        touch(MotionEvent.ACTION_DOWN, 0, 100f);
+        touch(MotionEvent.ACTION_MOVE, 16, 200f);
+        touch(MotionEvent.ACTION_UP, 32, 200f);
+
+        int frames = 0;
+        float previous = scrollView.getTranslationY();
+        while (scrollView.getTranslationY() != 0f) {
+            harness.stepFrameworkFrame();
+            frames++;
+            assertTrue("translation grew at frame " + frames, scrollView.getTranslationY() <= previous);
+            previous = scrollView.getTranslationY();
+            assertTrue("still bouncing back after " + frames + " frames",
+                frames < 2 * SmoothOverScrollHelper.BOUNCE_BACK_DURATION / AnimationHarness.FRAME_MILLIS);
+        }
+    }
+
+    @Test
+    public void releaseSpringsBackWithoutOvershooting() {
+        new SmoothOverScrollHelper(scrollView);
+
+        touch(MotionEvent.ACTION_DOWN, 0, 100f);
+        touch(MotionEvent.ACTION_MOVE, 16, 200f);
+        touch(MotionEvent.ACTION_UP, 32, 200f);
+
+        int frames = 0;
+        while (scrollView.getTranslationY() != 0f) {
+            harness.stepFrameworkFrame();
+            frames++;
+            // Critically damped: the content never crosses the edge it bounces back to
+            assertTrue("overshot at frame " + frames, scrollView.getTranslationY() >= 0f);
+            assertTrue("still springing back after " + frames + " frames", frames < MAX_FRAMES);
+        }
+    }
+
+    @Test
+    public void vsyncAlignedTranslationShowsTheDragAtTheFrameTime() {
+        ManualAnimationClock clock = harness.clock();
+        clock.setFrameIntervalNanos(16 * NANOS_PER_MILLI);
+        // Event times share the clock's time base, as uptime and frame times do on a device
+        downTime = clock.nanoTime() / NANOS_PER_MILLI;
+        SmoothOverScrollHelper helper = new SmoothOverScrollHelper(scrollView);
+        helper.setPhysicsBounceBackEnabled(false);
+        helper.setVsyncAlignedTranslation(true);
+
+        touch(MotionEvent.ACTION_DOWN, 0, 0f);
+        MotionEvent move = MotionEvent.obtain(downTime, downTime + 8, MotionEvent.ACTION_MOVE, 0f, 100f, 0);
+        move.addBatch(downTime + 16, 0f, 200f, 1f, 1f, 0);
+        scrollView.dispatchTouchEvent(move);
+        move.recycle();
+        // Nothing moves until the frame
+        assertEquals(0f, scrollView.getTranslationY(), 0f);
+
+        // The frame at 16 ms shows the drag at 11 ms: 3/8 of the way from the 8 ms sample to the 16 ms one
+        harness.stepEngineFrame();
+        float at8 = 100f * SmoothOverScrollHelper.RESISTANCE_FACTOR;
+        float at16 = 200f * SmoothOverScrollHelper.RESISTANCE_FACTOR;
+        assertEquals(at8 + (at16 - at8) * 3f / 8f, scrollView.getTranslationY(), 1e-3f);
+
+        // The next frame catches up with the newest sample without more input, and never runs past it
+        harness.stepEngineFrame();
+        assertEquals(at16, scrollView.getTranslationY(), 1e-3f);
+        assertTrue(clock.runUntilIdle(MAX_FRAMES));
+        assertEquals(at16, scrollView.getTranslationY(), 1e-3f);
+    }
+
+    @Test
+    public void detachingTheViewUnregistersItsAdapterObserver() {
+        CountingAdapter adapter = new CountingAdapter(activity);
+        GridView gridView = new GridView(activity);
+        gridView.setAdapter(adapter);
+        FrameLayout root = new FrameLayout(activity);
+        root.addView(gridView);
+        activity.setContentView(root);
+        harness.stepFrameworkFrame();
+
+        new SmoothOverScrollHelper(gridView);
+        assertEquals(1, adapter.helperObserverCount());
+
+        root.removeView(gridView);
+        assertEquals(0, adapter.helperObserverCount());
+
+        // Back on screen, it observes again
+        root.addView(gridView);
+        assertEquals(1, adapter.helperObserverCount());
+    }
+
+    private void touch(int action, long eventTimeOffset, float y) {
+        MotionEvent event = MotionEvent.obtain(downTime, downTime + eventTimeOffset, action, 0f, y, 0);
+        scrollView.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    // Records which observers are registered, so the helper's own can be told apart from the GridView's
+    private static final class CountingAdapter extends ArrayAdapter<String> {
+        private final List<DataSetObserver> observers = new ArrayList<>();
+
+        CountingAdapter(Activity activity) {
+            super(activity, android.R.layout.simple_list_item_1, new String[] {"a", "b", "c"});
+        }
+
+        @Override
+        public void registerDataSetObserver(DataSetObserver observer) {
+            super.registerDataSetObserver(observer);
+            observers.add(observer);
+        }
+
+        @Override
+        public void unregisterDataSetObserver(DataSetObserver observer) {
+            super.unregisterDataSetObserver(observer);
+            observers.remove(observer);
+        }
+
+        int helperObserverCount() {
+            int count = 0;
+            for (DataSetObserver observer : observers) {
+                if (observer.getClass().getName().startsWith(SmoothOverScrollHelper.class.getName())) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
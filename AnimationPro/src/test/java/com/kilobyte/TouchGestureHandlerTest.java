@@ -0,0 +1,91 @@
+package com.kilobyte;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+@RunWith(RobolectricTestRunner.class)
+public class TouchGestureHandlerTest {
+    private static final float SWIPE_DISTANCE = 300f;
+    // The swipe out plus the spring back, with frames to spare
+    private static final long SWIPE_MILLIS = 300 + 200 + 200;
+
+    @Rule
+    public final AnimationHarness harness = new AnimationHarness();
+
+    private View view;
+
+    @Before
+    public void setUp() {
+        view = new View(RuntimeEnvironment.getApplication());
+    }
+
+    @Test
+    public void flingSwipesOutAndSpringsBack() {
+        AnimationManager.TouchGestureHandler handler = new AnimationManager.TouchGestureHandler(view);
+        assertTrue(handler.onFling(null, null, 1000f, 0f));
+        assertTrue(view.hasTransientState());
+
+        float furthest = 0f;
+        float lowestAlpha = 1f;
+        for (long elapsed = 0; elapsed < SWIPE_MILLIS; elapsed += AnimationHarness.FRAME_MILLIS) {
+            harness.stepFrameworkFrame();
+            furthest = Math.max(furthest, view.getTranslationX());
+            lowestAlpha = Math.min(lowestAlpha, view.getAlpha());
+        }
+
+        assertEquals(SWIPE_DISTANCE, furthest, 1e-3f);
+        assertEquals(0f, lowestAlpha, 1e-3f);
+        assertEquals(0f, view.getTranslationX(), 0f);
+        assertEquals(1f, view.getAlpha(), 0f);
+        assertFalse(view.hasTransientState());
+    }
+
+    @Test
+    public void flingPicksTheDominantAxis() {
+        AnimationManager.TouchGestureHandler handler = new AnimationManager.TouchGestureHandler(view);
+        handler.onFling(null, null, 100f, -1000f);
+        harness.stepFrameworkFor(100);
+
+        assertEquals(0f, view.getTranslationX(), 0f);
+        assertTrue(view.getTranslationY() < 0f);
+    }
+
+    @Test
+    public void touchDownStopsARunningSwipe() {
+        AnimationManager.TouchGestureHandler.initializeSwipeableView(view);
+        long downTime = SystemClock.uptimeMillis();
+        // A quick flick to the right is a fling
+        touch(downTime, 0, MotionEvent.ACTION_DOWN, 0f);
+        touch(downTime, 10, MotionEvent.ACTION_MOVE, 100f);
+        touch(downTime, 20, MotionEvent.ACTION_UP, 200f);
+        harness.stepFrameworkFor(100);
+        float caughtX = view.getTranslationX();
+        float caughtAlpha = view.getAlpha();
+        assertTrue(caughtX < SWIPE_DISTANCE);
+
+        // The new touch takes the view where the swipe left it; nothing moves it on or springs it back
+        long nextDown = SystemClock.uptimeMillis();
+        touch(nextDown, 0, MotionEvent.ACTION_DOWN, caughtX);
+        harness.stepFrameworkFor(SWIPE_MILLIS);
+
+        assertEquals(caughtX, view.getTranslationX(), 0f);
+        assertEquals(caughtAlpha, view.getAlpha(), 0f);
+    }
+
+    private void touch(long downTime, long offset, int action, float x) {
+        MotionEvent event = MotionEvent.obtain(downTime, downTime + offset, action, x, 0f, 0);
+        view.dispatchTouchEvent(event);
+        event.recycle();
+    }
+}
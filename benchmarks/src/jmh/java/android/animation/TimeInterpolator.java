@@ -0,0 +1,6 @@
+package android.animation;
+
+// Same shape as the framework interface, so the library's interpolators compile on a plain JVM
+public interface TimeInterpolator {
+    float getInterpolation(float input);
+}
@@ -0,0 +1,7 @@
+package android.view.animation;
+
+import android.animation.TimeInterpolator;
+
+// Same shape as the framework interface, so the library's interpolators compile on a plain JVM
+public interface Interpolator extends TimeInterpolator {
+}
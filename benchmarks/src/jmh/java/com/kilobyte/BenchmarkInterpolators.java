@@ -0,0 +1,30 @@
+package com.kilobyte;
+
+import android.animation.TimeInterpolator;
+
+// Builds the registry's spring and iOS curves and their table forms from the library classes.
+// InterpolatorRegistry itself pulls in framework interpolators, so it is not compiled here.
+public final class BenchmarkInterpolators {
+
+    // InterpolatorRegistry.DEFAULT_TABLE_SIZE
+    public static final int DEFAULT_TABLE_SIZE = 201;
+
+    private BenchmarkInterpolators() {
+    }
+
+    public static TimeInterpolator spring() {
+        return new CustomSpringInterpolator();
+    }
+
+    public static TimeInterpolator iosCurve() {
+        return new CubicBezierInterpolator(0.42f, 0f, 0.58f, 1f);
+    }
+
+    public static TimeInterpolator springTable(int sampleCount) {
+        return new LookupTableInterpolator(spring(), sampleCount);
+    }
+
+    public static TimeInterpolator iosCurveTable(int sampleCount) {
+        return new LookupTableInterpolator(iosCurve(), sampleCount);
+    }
+}
@@ -0,0 +1,47 @@
+package com.kilobyte.benchmarks;
+
+import com.kilobyte.AnimationMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class FrameMathBenchmark {
+
+    // Same constants as SmoothOverScrollHelper and OverScrollSwipeRefreshLayout
+    private static final float HELPER_RESISTANCE = 0.3f;
+    private static final float HELPER_MAX_DISTANCE = 500f;
+    private static final float REFRESH_RESISTANCE = 0.2f;
+    private static final float REFRESH_MAX_DISTANCE = 300f;
+
+    private float fraction;
+    private float overscroll;
+    private float touchY;
+
+    @Benchmark
+    public float transitionLerp() {
+        fraction += 0.0137f;
+        if (fraction >= 1f) {
+            fraction -= 1f;
+        }
+        return AnimationMath.lerp(120f, 840f, fraction);
+    }
+
+    @Benchmark
+    public float overscrollResistance() {
+        overscroll = AnimationMath.applyResistance(overscroll, 7.5f, HELPER_RESISTANCE, HELPER_MAX_DISTANCE);
+        if (overscroll >= HELPER_MAX_DISTANCE) {
+            overscroll = -HELPER_MAX_DISTANCE;
+        }
+        return overscroll;
+    }
+
+    @Benchmark
+    public float refreshPullOffset() {
+        touchY += 3.25f;
+        if (touchY > 2000f) {
+            touchY = 0f;
+        }
+        return AnimationMath.pullOffset(0f, touchY, REFRESH_RESISTANCE, REFRESH_MAX_DISTANCE);
+    }
+}
@@ -0,0 +1,59 @@
+package com.kilobyte.benchmarks;
+
+import android.animation.TimeInterpolator;
+import com.kilobyte.AnimationMath;
+import com.kilobyte.BenchmarkInterpolators;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class InterpolatorBenchmark {
+
+    private static final float SPRING_TENSION = 0.7f;
+
+    @Param({"" + BenchmarkInterpolators.DEFAULT_TABLE_SIZE})
+    public int tableSize;
+
+    // The shipped LookupTableInterpolator, built over the same sources the registry uses
+    private TimeInterpolator springTable;
+    private TimeInterpolator iosCurveTable;
+    private float progress;
+
+    @Setup
+    public void setUp() {
+        springTable = BenchmarkInterpolators.springTable(tableSize);
+        iosCurveTable = BenchmarkInterpolators.iosCurveTable(tableSize);
+    }
+
+    // Walks the whole [0, 1) range like a running animation instead of hitting one cached input
+    private float nextProgress() {
+        progress += 0.0137f;
+        if (progress >= 1f) {
+            progress -= 1f;
+        }
+        return progress;
+    }
+
+    @Benchmark
+    public float springAnalytic() {
+        return AnimationMath.springInterpolation(nextProgress(), SPRING_TENSION);
+    }
+
+    @Benchmark
+    public float springTable() {
+        return springTable.getInterpolation(nextProgress());
+    }
+
+    @Benchmark
+    public float iosCurveAnalytic() {
+        return AnimationMath.cubicBezier(0.42f, 0f, 0.58f, 1f, nextProgress());
+    }
+
+    @Benchmark
+    public float iosCurveTable() {
+        return iosCurveTable.getInterpolation(nextProgress());
+    }
+}